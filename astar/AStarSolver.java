@@ -8,8 +8,7 @@ package astar;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -18,11 +17,23 @@ import java.util.PriorityQueue;
  */
 public abstract class AStarSolver<T extends AStarSolver.AIState> {
     
-    public static class AIState {
+    /* How many nodes are expanded between checks for interruption, a power of 2 */
+    private static final int CHECK_INTERVAL = 1024;
+    
+    /* Receives the statistics of every search, or null to skip timing expansions */
+    private SearchListener listener = null;
+    
+    public abstract static class AIState {
 
         public int f = 0;
         public int g = 0;
 
+        /**
+         * Returns a key identifying the state, two states are equal if and only if their keys are equal
+         * @return the key of the state
+         */
+        public abstract long key();
+
     }
     
     private class Tree {
@@ -65,25 +76,54 @@ public abstract class AStarSolver<T extends AStarSolver.AIState> {
         /**
          * Uses the AStar algorithm to search the tree
          * @param goal, the goal to search for
-         * @return the shortest path
+         * @param stats, the statistics to count into
+         * @return the shortest path, or null if there is none or the thread was interrupted
          */
-        private ArrayList<T> AStar(T goal) {
-            ArrayList<T> closedSet = new ArrayList<>();
-            closedSet.add(this.root.data);
-            PriorityQueue<Tree.Node> openSet = new PriorityQueue<>(1, new NodeComparator());
-            openSet.add(this.root);
+        private ArrayList<T> AStar(T goal, SearchStats stats) {
+            boolean timed = listener != null;
+            LongHashSet closedSet = new LongHashSet();
+            OpenList<Tree.Node> openSet = createOpenList();
+            openSet.add(this.root, this.root.data.f, this.root.data.g);
+            //queues each successor under the node being expanded
+            class Children extends Successors<T> {
+                private Tree.Node parent;
+
+                private Children() {
+                    super(closedSet, timed ? stats : null);
+                }
+
+                @Override
+                public void add(T state) {
+                    Tree.Node node = new Tree.Node(state);
+                    openSet.add(node, state.f, state.g);
+                    parent.addChild(node);
+                    stats.generated++;
+                }
+            }
+            Children children = new Children();
+            int expanded = 0;
             while(!openSet.isEmpty()) {
+                if (interrupted(++expanded)) {
+                    return null;
+                }
                 Tree.Node current = openSet.poll();
-                closedSet.add(current.data);
+                //a state may be queued more than once, only expand its first occurrence
+                if(!closedSet.add(current.data.key())) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                stats.expanded++;
+                stats.closedSize(closedSet.size());
                 if(isEqualTo(current.data, goal)) {
                     return reconstructPath(current);
                 }
-                ArrayList<T> toQueue = calculateStates(current.data.g, current.data, closedSet, goal);
-                toQueue.forEach((T state) -> {
-                    Tree.Node node = new Tree.Node(state);
-                    openSet.add(node);
-                    current.addChild(node);
-                });
+                long start = timed ? System.nanoTime() : 0;
+                children.parent = current;
+                expand(current.data, goal, children);
+                if (timed) {
+                    stats.expansionNanos += System.nanoTime() - start;
+                }
+                stats.openSize(openSet.size());
             }
             return null;
         }
@@ -115,32 +155,546 @@ public abstract class AStarSolver<T extends AStarSolver.AIState> {
      * Constructs a tree and finds the shortest path to goal with AStar algorithm
      * @param initial, the initial state to calculate from
      * @param goal, the goal state to calculate to
-     * @return the shortest path
+     * @return the shortest path, or null if there is none or the thread was interrupted
      */
     public ArrayList<T> AStar(T initial, T goal) {
+        long start = System.nanoTime();
+        SearchStats stats = new SearchStats("AStar");
+        initialize(initial, goal);
         Tree tree = new Tree(initial);
-        return tree.AStar(goal);
+        return finish(stats, start, tree.AStar(goal, stats));
     }
      
 
-    private class NodeComparator implements Comparator<Tree.Node>{
+    /** 
+     * Finds the shortest path to goal with enhanced partial expansion A* (EPEA*). A node is first queued
+     * with its own f and each time it is polled only the successors with f equal to the value it was polled
+     * with are generated, then it is queued again with the next higher successor f until none are left.
+     * Successors that would never be expanded are not queued, and with an expandPartial that knows each
+     * move's change of f in advance they are not built either.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> partialExpansionAStar(T initial, T goal) {
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("partialExpansionAStar");
+        boolean timed = listener != null;
+        initialize(initial, goal);
+        Tree tree = new Tree(initial);
+        OpenList<Tree.Node> openSet = createOpenList();
+        LongHashSet closedSet = new LongHashSet();
+        LongHashMap<Tree.Node> reached = new LongHashMap<>();
+        openSet.add(tree.root, initial.f, initial.g);
+        reached.put(initial.key(), tree.root);
+        //queues each successor under the node being expanded unless its state was reached more cheaply
+        class Children extends Successors<T> {
+            private Tree.Node parent;
+
+            private Children() {
+                super(closedSet, timed ? stats : null);
+            }
+
+            @Override
+            public void add(T state) {
+                long key = state.key();
+                Tree.Node known = reached.get(key);
+                if (known != null && known.data.g <= state.g) {
+                    stats.duplicatesPruned++;
+                    return;
+                }
+                Tree.Node node = tree.new Node(state);
+                parent.addChild(node);
+                reached.put(key, node);
+                openSet.add(node, state.f, state.g);
+                stats.generated++;
+            }
+        }
+        Children children = new Children();
+        int expanded = 0;
+        while (!openSet.isEmpty()) {
+            if (interrupted(++expanded)) {
+                return finish(stats, startTime, null);
+            }
+            int f = openSet.peekF();
+            Tree.Node current = openSet.poll();
+            long key = current.data.key();
+            //skip nodes that were queued again with a lower path cost, or fully expanded
+            if (reached.get(key) != current || closedSet.contains(key)) {
+                stats.duplicatesPruned++;
+                continue;
+            }
+            if (isEqualTo(current.data, goal)) {
+                return finish(stats, startTime, tree.reconstructPath(current));
+            }
+            stats.expanded++;
+            long start = timed ? System.nanoTime() : 0;
+            children.parent = current;
+            int next = expandPartial(current.data, goal, f, children);
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            if (next == Integer.MAX_VALUE) {
+                closedSet.add(key);
+                stats.closedSize(closedSet.size());
+            } else {
+                openSet.add(current, next, current.data.g);
+            }
+            stats.openSize(openSet.size());
+        }
+        return finish(stats, startTime, null);
+    }
+    
+    /** 
+     * Finds the shortest path to goal with AStar on an indexed open list, each state is queued at most once
+     * and reaching a queued state with a lower path cost moves it up the list instead of queueing it again.
+     * Expanded states are never generated again, which is only optimal with a consistent heuristic.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> indexedAStar(T initial, T goal) {
+        return indexedAStar(initial, goal, false);
+    }
+    
+    /** 
+     * Finds the shortest path to goal with AStar on an indexed open list, see indexedAStar(T, T).
+     * With reopening an expanded state reached again with a lower path cost is queued and expanded again,
+     * which keeps the path optimal when the heuristic is admissible but not consistent, at the cost of
+     * generating expanded states again to compare their path costs.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param reopen, whether to reopen expanded states reached more cheaply
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> indexedAStar(T initial, T goal, boolean reopen) {
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("indexedAStar");
+        boolean timed = listener != null;
+        initialize(initial, goal);
+        Tree tree = new Tree(initial);
+        IndexedOpenList<Tree.Node> openSet = new IndexedOpenList<>();
+        LongHashSet closedSet = new LongHashSet();
+        //the expanded node of each state, only kept when reopening so a cheaper path can be compared
+        LongHashMap<Tree.Node> closedNodes = reopen ? new LongHashMap<>() : null;
+        openSet.offer(initial.key(), tree.root, initial.f, initial.g);
+        //queues each successor, or lowers the path cost of its queued or expanded state
+        class Children extends Successors<T> {
+            private Tree.Node parent;
+
+            private Children() {
+                //when reopening nothing counts as closed, so expanded states are generated and compared
+                super(reopen ? new LongHashSet() : closedSet, timed ? stats : null);
+            }
+
+            @Override
+            public void add(T state) {
+                long key = state.key();
+                stats.generated++;
+                if (!reopen && closedSet.contains(key)) {
+                    stats.duplicatesPruned++;
+                    return;
+                }
+                if (reopen) {
+                    Tree.Node closed = closedNodes.get(key);
+                    if (closed != null) {
+                        if (closed.data.g <= state.g) {
+                            stats.duplicatesPruned++;
+                            return;
+                        }
+                        closedNodes.remove(key);
+                        stats.reopened++;
+                    }
+                }
+                //a state queued with a path cost no higher is pruned before a node is made for it
+                Tree.Node queued = openSet.get(key);
+                if (queued != null && queued.data.g <= state.g) {
+                    stats.duplicatesPruned++;
+                    return;
+                }
+                Tree.Node node = tree.new Node(state);
+                openSet.offer(key, node, state.f, state.g);
+                parent.addChild(node);
+            }
+        }
+        Children children = new Children();
+        int expanded = 0;
+        while (!openSet.isEmpty()) {
+            if (interrupted(++expanded)) {
+                return finish(stats, startTime, null);
+            }
+            Tree.Node current = openSet.poll();
+            if (isEqualTo(current.data, goal)) {
+                return finish(stats, startTime, tree.reconstructPath(current));
+            }
+            if (reopen) {
+                closedNodes.put(current.data.key(), current);
+                stats.closedSize(closedNodes.size());
+            } else {
+                closedSet.add(current.data.key());
+                stats.closedSize(closedSet.size());
+            }
+            stats.expanded++;
+            long start = timed ? System.nanoTime() : 0;
+            children.parent = current;
+            expand(current.data, goal, children);
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.openSize(openSet.size());
+        }
+        return finish(stats, startTime, null);
+    }
+    
+    /** 
+     * Finds the shortest path to goal with AStar expanding a batch of the best nodes at a time. The successors
+     * of the whole batch are generated by expandUnscored and then scored together by estimateBatch, which lets
+     * the heuristic run over an array of states instead of one state per call.
+     * Nodes in a batch are not all the best in the open list by the time they are expanded, so a state reached
+     * again more cheaply is expanded again, and the search ends once no queued f is below the cheapest goal found.
+     * The path is optimal with an admissible heuristic.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param batchSize, the most nodes expanded per batch, 1 expands one node at a time like AStar
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> batchAStar(T initial, T goal, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("A batch holds at least one node");
+        }
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("batchAStar");
+        boolean timed = listener != null;
+        initialize(initial, goal);
+        Tree tree = new Tree(initial);
+        OpenList<Tree.Node> openSet = createOpenList();
+        LongHashMap<Tree.Node> reached = new LongHashMap<>();
+        openSet.add(tree.root, initial.f, initial.g);
+        reached.put(initial.key(), tree.root);
+        ArrayList<Tree.Node> batch = new ArrayList<>(batchSize);
+        ArrayList<Tree.Node> pending = new ArrayList<>();
+        ArrayList<T> pendingStates = new ArrayList<>();
+        //holds each successor under the node being expanded unless its state was reached more cheaply
+        class Children extends Successors<T> {
+            private Tree.Node parent;
+
+            private Children() {
+                //nothing counts as closed, a state is compared with the cheapest path to it found so far
+                super(new LongHashSet(), timed ? stats : null);
+            }
+
+            @Override
+            public void add(T state) {
+                long key = state.key();
+                Tree.Node known = reached.get(key);
+                if (known != null && known.data.g <= state.g) {
+                    stats.duplicatesPruned++;
+                    return;
+                }
+                Tree.Node node = tree.new Node(state);
+                parent.addChild(node);
+                reached.put(key, node);
+                pending.add(node);
+                pendingStates.add(state);
+                stats.generated++;
+            }
+        }
+        Children children = new Children();
+        Tree.Node best = null;
+        int expanded = 0;
+        while (true) {
+            batch.clear();
+            while (batch.size() < batchSize && !openSet.isEmpty()
+                    && (best == null || openSet.peekF() < best.data.g)) {
+                if (interrupted(++expanded)) {
+                    return finish(stats, startTime, null);
+                }
+                Tree.Node current = openSet.poll();
+                //skip nodes that were queued again with a lower path cost
+                if (reached.get(current.data.key()) != current) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                if (isEqualTo(current.data, goal)) {
+                    if (best == null || current.data.g < best.data.g) {
+                        best = current;
+                    }
+                    continue;
+                }
+                batch.add(current);
+            }
+            if (batch.isEmpty()) {
+                return finish(stats, startTime, best == null ? null : tree.reconstructPath(best));
+            }
+            long start = timed ? System.nanoTime() : 0;
+            for (Tree.Node current : batch) {
+                stats.expanded++;
+                children.parent = current;
+                expandUnscored(current.data, goal, children);
+            }
+            long scoring = timed ? System.nanoTime() : 0;
+            estimateBatch(pendingStates, goal);
+            if (timed) {
+                stats.heuristicNanos += System.nanoTime() - scoring;
+            }
+            for (Tree.Node node : pending) {
+                openSet.add(node, node.data.f, node.data.g);
+            }
+            pending.clear();
+            pendingStates.clear();
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.openSize(openSet.size());
+            stats.closedSize(reached.size());
+        }
+    }
+    
+    /*
+     *    One direction of a bidirectional search, a tree grown from one end
+     *    with its own open and closed sets and the best node reached for each state
+     */
+    private class Frontier {
+
+        private final Tree tree;
+        private final T target;
+        private final boolean forward;
+        private final OpenList<Tree.Node> openSet = createOpenList();
+        private final LongHashSet closedSet = new LongHashSet();
+        private final LongHashMap<Tree.Node> reached = new LongHashMap<>();
 
         /**
-         * Implementation of comparator used for Queue
-         * @param o1, the first node to compare
-         * @param o2, the second node to compare
-         * @return -1 if o1 is less, 1 if o1 is more, 0 if equal
+         * @param root, the state this direction searches from
+         * @param target, the state this direction searches towards
+         * @param forward, true if moves are taken forwards, false if they are taken backwards
          */
-        @Override
-        public int compare(Tree.Node o1, Tree.Node o2) {
-            if(o1.data.f < o2.data.f) {
-                return -1;
-            } else if(o1.data.f > o2.data.f){
-                return 1;
-            }   
-            return 0;
+        private Frontier(T root, T target, boolean forward) {
+            initialize(root, target);
+            this.tree = new Tree(root);
+            this.target = target;
+            this.forward = forward;
+            openSet.add(tree.root, priority(root), root.g);
+            reached.put(root.key(), tree.root);
+        }
+
+        /**
+         * The MM priority, a node is not expanded before twice its path cost so
+         * neither direction passes the midpoint of the optimal path
+         */
+        private int priority(T state) {
+            return Math.max(state.f, 2 * state.g);
+        }
+
+        /**
+         * Expands the node with the lowest priority
+         * @param other, the opposite direction, checked for meetings
+         * @param best, the cheapest path found so far, updated when a cheaper meeting is found
+         * @param stats, the statistics to count into
+         */
+        private void expand(Frontier other, Meeting best, SearchStats stats) {
+            Tree.Node current = openSet.poll();
+            long key = current.data.key();
+            //skip nodes that were queued again with a lower path cost
+            if (reached.get(key) != current || !closedSet.add(key)) {
+                stats.duplicatesPruned++;
+                return;
+            }
+            stats.expanded++;
+            long start = listener != null ? System.nanoTime() : 0;
+            ArrayList<T> toQueue = forward
+                    ? successors(current.data, closedSet, target, listener != null ? stats : null)
+                    : calculatePredecessors(current.data.g, current.data, closedSet, target);
+            if (listener != null) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.generated += toQueue.size();
+            for (T state : toQueue) {
+                long childKey = state.key();
+                Tree.Node known = reached.get(childKey);
+                if (known != null && known.data.g <= state.g) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                Tree.Node node = tree.new Node(state);
+                current.addChild(node);
+                reached.put(childKey, node);
+                openSet.add(node, priority(state), state.g);
+                Tree.Node meet = other.reached.get(childKey);
+                if (meet != null && state.g + meet.data.g < best.cost) {
+                    best.cost = state.g + meet.data.g;
+                    best.forward = forward ? node : meet;
+                    best.backward = forward ? meet : node;
+                }
+            }
         }
-        
+    }
+
+    /*
+     *    The cheapest path found by a bidirectional search, the two nodes hold the same state
+     */
+    private class Meeting {
+
+        private int cost = Integer.MAX_VALUE;
+        private Tree.Node forward;
+        private Tree.Node backward;
+    }
+
+    /** 
+     * Finds the shortest path to goal by searching forwards from initial and backwards from goal
+     * at the same time using the MM algorithm. The search stops once the cheapest meeting of the
+     * two trees costs no more than the lowest priority left in either open set, which proves it optimal.
+     * Backward moves come from calculatePredecessors.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> bidirectionalAStar(T initial, T goal) {
+        long start = System.nanoTime();
+        SearchStats stats = new SearchStats("bidirectionalAStar");
+        Frontier forward = new Frontier(initial, goal, true);
+        Frontier backward = new Frontier(goal, initial, false);
+        Meeting best = new Meeting();
+        if (initial.key() == goal.key()) {
+            best.cost = 0;
+            best.forward = forward.tree.root;
+            best.backward = backward.tree.root;
+        }
+        int expanded = 0;
+        while (!forward.openSet.isEmpty() && !backward.openSet.isEmpty()) {
+            if (interrupted(++expanded)) {
+                return finish(stats, start, null);
+            }
+            int forwardMin = forward.openSet.peekF();
+            int backwardMin = backward.openSet.peekF();
+            if (best.cost <= Math.min(forwardMin, backwardMin)) {
+                break;
+            }
+            if (forwardMin <= backwardMin) {
+                forward.expand(backward, best, stats);
+            } else {
+                backward.expand(forward, best, stats);
+            }
+            stats.openSize(forward.openSet.size() + backward.openSet.size());
+            stats.closedSize(forward.closedSet.size() + backward.closedSet.size());
+        }
+        if (best.forward == null) {
+            return finish(stats, start, null);
+        }
+        ArrayList<T> list = forward.tree.reconstructPath(best.forward);
+        //backward path costs count down to the goal, turn them into costs from the initial state
+        T previous = list.get(list.size() - 1);
+        int remaining = best.backward.data.g;
+        for (Tree.Node node = best.backward.parent; node != null; node = node.parent) {
+            T state = node.data;
+            int cost = previous.g + remaining - state.g;
+            remaining = state.g;
+            state.g = cost;
+            state.f = cost + remaining;
+            orient(previous, state);
+            list.add(state);
+            previous = state;
+        }
+        return finish(stats, start, list);
+    }
+    
+    /** 
+     * Finds the shortest path to goal with hash distributed A* on several threads, see ParallelAStar.
+     * Subclasses must not change shared state in calculateStates to use it.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param threads, the number of worker threads, including the calling thread
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> parallelAStar(T initial, T goal, int threads) {
+        return new ParallelAStar<>(this, threads).solve(initial, goal);
+    }
+    
+    /**
+     * Sets the listener told about every search run by this solver, a search only times its
+     * expansions while a listener is set. Combine listeners with SearchListener.of.
+     * @param listener, the listener, or null to remove it
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+    
+    public SearchListener getSearchListener() {
+        return listener;
+    }
+    
+    /**
+     * Completes the statistics of a search and passes them to the listener
+     * @param stats, the statistics of the search
+     * @param start, the System.nanoTime the search started at
+     * @param path, the path found, or null
+     * @return the path
+     */
+    ArrayList<T> finish(SearchStats stats, long start, ArrayList<T> path) {
+        finish(stats, start, path == null ? -1 : path.get(path.size() - 1).g);
+        return path;
+    }
+    
+    /**
+     * Completes the statistics of a search that found no path or only its cost and passes them to the listener
+     * @param stats, the statistics of the search
+     * @param start, the System.nanoTime the search started at
+     * @param cost, the path cost of the solution, or -1 if there is none
+     */
+    void finish(SearchStats stats, long start, int cost) {
+        SearchListener current = listener;
+        if (current != null) {
+            stats.wallNanos = System.nanoTime() - start;
+            stats.solved = cost >= 0;
+            stats.solutionCost = cost;
+            current.searchFinished(stats);
+        }
+    }
+    
+    /** 
+     * Finds a path to goal within a time limit with anytime repairing A*, see AnytimeAStar. A first path is
+     * found quickly by weighting the heuristic, then improved with lower weights until time runs out or it is
+     * proven optimal.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param weight, the weight of the first pass, at least 1
+     * @param timeout, how long the search may run
+     * @param unit, the unit of the timeout
+     * @return the best path found and how far from optimal it may be
+     */
+    public AnytimeResult<T> anytimeAStar(T initial, T goal, double weight, long timeout, TimeUnit unit) {
+        return new AnytimeAStar<>(this).solve(initial, goal, weight, timeout, unit, null);
+    }
+    
+    /** 
+     * Starts an incremental search, see IncrementalAStar. Its plan method finds the shortest path and keeps
+     * the search, so after the costs of some moves change and are reported, planning again only repairs the
+     * part of the search they affect. Requires a consistent heuristic that estimates the cost between two
+     * states in either direction, and predecessors from calculatePredecessors.
+     * @param start, the state to plan from, it may move between plans
+     * @param goal, the state to plan to
+     * @return the search, nothing is searched until its first plan
+     */
+    public IncrementalAStar<T> incrementalAStar(T start, T goal) {
+        return new IncrementalAStar<>(this, start, goal);
+    }
+    
+    /**
+     * Checks every CHECK_INTERVAL expansions whether the thread was interrupted, so a search
+     * can be cancelled, such as by BatchSolver when it runs out of time
+     * @param expanded, the number of nodes expanded so far
+     * @return true if the search should stop
+     */
+    static boolean interrupted(int expanded) {
+        return (expanded & (CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted();
+    }
+    
+    /**
+     * Creates the open list used by AStar, override to plug in a different ordering strategy
+     * @param <E>, the type of element held by the list
+     * @return an empty open list
+     */
+    protected <E> OpenList<E> createOpenList() {
+        return new HeapOpenList<>();
     }
     
     /**
@@ -155,11 +709,120 @@ public abstract class AStarSolver<T extends AStarSolver.AIState> {
      * Calculates the next possible states based off the current node and closed nodes
      * @param pathCost, the pathCost of the current state
      * @param current, the current state
-     * @param closedNodes, nodes already expanded
+     * @param closedNodes, keys of the nodes already expanded
      * @param goalNode, the goal node 
      * @return a list of states
      */
-    public abstract ArrayList<T> calculateStates(int pathCost, T current, ArrayList<T> closedNodes, T goalNode);
+    public abstract ArrayList<T> calculateStates(int pathCost, T current, LongHashSet closedNodes, T goalNode);
+    
+    /**
+     * Calculates the successors of a state into a list like calculateStates, for the searches that work on lists
+     * @param current, the current state
+     * @param closedNodes, keys of the nodes already expanded
+     * @param goal, the goal state
+     * @param timing, the statistics to count heuristic time into, or null to not time it
+     * @return a list of states
+     */
+    ArrayList<T> successors(T current, LongHashSet closedNodes, T goal, SearchStats timing) {
+        ArrayList<T> list = new ArrayList<>();
+        expand(current, goal, Successors.into(closedNodes, list, timing));
+        return list;
+    }
+
+    /**
+     * Generates the successors of a state into the solver's sink, used by AStar. The default adds the states
+     * from calculateStates, override it to push successors without building a list.
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param successors, receives the successors and answers whether a state was already expanded
+     */
+    protected void expand(T current, T goal, Successors<T> successors) {
+        for (T state : calculateStates(current.g, current, successors.closedSet(), goal)) {
+            successors.add(state);
+        }
+    }
+    
+    /**
+     * Generates only the successors of a state whose f equals a value, used by partialExpansionAStar.
+     * The default builds every successor with calculateStates and keeps the matching ones, override it
+     * to work out the f of each move before building its state.
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param f, the f of the successors to generate
+     * @param successors, receives the successors and answers whether a state was already expanded
+     * @return the lowest successor f above f, or Integer.MAX_VALUE if there is none
+     */
+    protected int expandPartial(T current, T goal, int f, Successors<T> successors) {
+        int next = Integer.MAX_VALUE;
+        for (T state : calculateStates(current.g, current, successors.closedSet(), goal)) {
+            if (state.f == f) {
+                successors.add(state);
+            } else if (state.f > f && state.f < next) {
+                next = state.f;
+            }
+        }
+        return next;
+    }
+    
+    /**
+     * Generates the successors of a state with their path costs set but not necessarily their f, used by
+     * batchAStar which scores them a batch at a time with estimateBatch. The default generates them already
+     * scored with expand, override it together with estimateBatch to leave the heuristic to the batch.
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param successors, receives the successors
+     */
+    protected void expandUnscored(T current, T goal, Successors<T> successors) {
+        expand(current, goal, successors);
+    }
+    
+    /**
+     * Sets the f of a batch of successors from expandUnscored, used by batchAStar. The default leaves
+     * them as they are since the default expandUnscored scores them already.
+     * @param states, the successors of every node in the batch
+     * @param goal, the goal state
+     */
+    protected void estimateBatch(ArrayList<T> states, T goal) {
+    }
+    
+    /**
+     * Calculates the states that can reach the current state in one move, used by the backward
+     * direction of bidirectionalAStar. The default takes the forward moves, which is correct for
+     * problems where every move can be undone at the same cost, override it otherwise.
+     * @param pathCost, the pathCost of the current state, counted from the goal
+     * @param current, the current state
+     * @param closedNodes, keys of the nodes already expanded backwards
+     * @param initialNode, the initial state, used as the target of the heuristic
+     * @return a list of states
+     */
+    public ArrayList<T> calculatePredecessors(int pathCost, T current, LongHashSet closedNodes, T initialNode) {
+        return calculateStates(pathCost, current, closedNodes, initialNode);
+    }
+    
+    /**
+     * Marks a state on the backward half of a bidirectional path with the move that reaches it
+     * from the state before it, states found backwards hold the move that led away from them
+     * @param previous, the state before it on the path
+     * @param state, the state to mark
+     */
+    protected void orient(T previous, T state) {
+    }
+    
+    /**
+     * Estimates the remaining cost from a state to the goal without changing the state
+     * @param state, the state to estimate from
+     * @param goal, the goal state
+     * @return the heuristic value
+     */
+    protected abstract int estimate(T state, T goal);
+    
+    /**
+     * Sets up the path cost and heuristic of the initial state before AStar searches from it
+     * @param initial, the initial state
+     * @param goal, the goal state
+     */
+    protected void initialize(T initial, T goal) {
+    }
     
   
 }
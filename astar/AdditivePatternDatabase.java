@@ -0,0 +1,254 @@
+/*
+ * A set of pattern databases over disjoint groups of tiles, their distances are added
+ * together to give an admissible heuristic for the sliding puzzle.
+ * Databases are saved to a single versioned file and loaded by memory mapping it, so many
+ * solver processes can share one copy of the tables through the page cache.
+ * The shape of the board is stored with the databases, so tables for the 4x4 board can be used by
+ * SlidingSolver however PuzzleState was compiled.
+ * 10/17/26
+ */
+package astar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * @author Joseph
+ */
+public class AdditivePatternDatabase {
+
+    /*
+     *    File layout, all values big endian:
+     *    int magic, int version, int rows, int columns, long goal board, int group count,
+     *    then per group: int tile count, one int per tile, int table length, the table bytes
+     */
+    private static final int MAGIC = 0x50444221;
+    private static final int VERSION = 2;
+    private static final int HEADER = 28;
+
+    /* The shape of the board and the packed goal the databases were built for */
+    private final int rows;
+    private final int cols;
+    private final long goal;
+    private final PatternDatabase[] patterns;
+
+    /**
+     * @param goal, the packed goal board the databases were built for, of PuzzleState's size
+     * @param patterns, databases over disjoint groups of tiles
+     */
+    public AdditivePatternDatabase(long goal, PatternDatabase... patterns) {
+        this(PuzzleState.BOARD_SIZE, PuzzleState.BOARD_SIZE, goal, patterns);
+    }
+
+    /**
+     * @param rows, the number of rows of the board
+     * @param cols, the number of columns of the board
+     * @param goal, the packed goal board the databases were built for
+     * @param patterns, databases over disjoint groups of tiles
+     */
+    public AdditivePatternDatabase(int rows, int cols, long goal, PatternDatabase... patterns) {
+        boolean[] used = new boolean[rows * cols];
+        for (PatternDatabase pattern : patterns) {
+            if (pattern.getRows() != rows || pattern.getCols() != cols) {
+                throw new IllegalArgumentException("Pattern database was built for another board size");
+            }
+            for (int tile : pattern.getTiles()) {
+                if (used[tile]) {
+                    throw new IllegalArgumentException("Tile " + tile + " is in more than one group");
+                }
+                used[tile] = true;
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.goal = goal;
+        this.patterns = patterns.clone();
+    }
+
+    /**
+     * Builds a database for each group of a partition of the tiles, such as 6-6-3 for the 4x4 board
+     * @param goal, the goal state
+     * @param groups, disjoint groups of tiles
+     * @return the additive database
+     */
+    public static AdditivePatternDatabase build(PuzzleState goal, int[]... groups) {
+        return build(SlidingState.of(goal.getPuzzle()), groups);
+    }
+
+    /**
+     * Builds a database for each group of a partition of the tiles of a board of any shape
+     * @param goal, the goal state, at most 16 cells
+     * @param groups, disjoint groups of tiles
+     * @return the additive database
+     */
+    public static AdditivePatternDatabase build(SlidingState goal, int[]... groups) {
+        PatternDatabase[] patterns = new PatternDatabase[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            patterns[i] = PatternDatabase.build(goal, groups[i]);
+        }
+        return new AdditivePatternDatabase(goal.getRows(), goal.getCols(), goal.key(), patterns);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getGoal() {
+        return goal;
+    }
+
+    /**
+     * Checks whether the databases were built for a goal
+     * @param goal, the goal state
+     * @return true or false
+     */
+    public boolean isBuiltFor(PuzzleState goal) {
+        return rows == PuzzleState.BOARD_SIZE && cols == PuzzleState.BOARD_SIZE && this.goal == goal.getBoard();
+    }
+
+    /**
+     * Checks whether the databases were built for a goal of any shape
+     * @param goal, the goal state
+     * @return true or false
+     */
+    public boolean isBuiltFor(SlidingState goal) {
+        return rows == goal.getRows() && cols == goal.getCols() && goal instanceof PackedSlidingState
+                && this.goal == goal.key();
+    }
+
+    /**
+     * Estimates the moves left from a state by adding the distance of every group
+     * @param state, the state to estimate from
+     * @return the heuristic value
+     */
+    public int estimate(PuzzleState state) {
+        return estimate(state.getBoard());
+    }
+
+    /**
+     * Estimates the moves left from a state of the shape the databases were built for
+     * @param state, the state to estimate from
+     * @return the heuristic value
+     */
+    public int estimate(SlidingState state) {
+        return estimate(state.key());
+    }
+
+    /**
+     * Estimates the moves left from a board packed 4 bits per tile, the board is inverted
+     * into the cell of each tile, which also fits in a long since boards have at most 16 cells
+     * @param board, the packed board
+     * @return the heuristic value
+     */
+    public int estimate(long board) {
+        long positions = 0;
+        for (int cell = rows * cols - 1; cell >= 0; cell--) {
+            positions |= (long) cell << (((board >>> (cell << 2)) & 0xF) << 2);
+        }
+        int h = 0;
+        for (PatternDatabase pattern : patterns) {
+            h += pattern.lookup(positions);
+        }
+        return h;
+    }
+
+    /**
+     * Writes the databases to a file, replacing it if it exists
+     * @param path, the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putLong(goal).putInt(patterns.length);
+            writeFully(channel, header.flip());
+            for (PatternDatabase pattern : patterns) {
+                int[] tiles = pattern.getTiles();
+                ByteBuffer table = pattern.getTable();
+                ByteBuffer group = ByteBuffer.allocate(8 + 4 * tiles.length);
+                group.putInt(tiles.length);
+                for (int tile : tiles) {
+                    group.putInt(tile);
+                }
+                group.putInt(table.capacity());
+                writeFully(channel, group.flip());
+                writeFully(channel, table.clear());
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps a file written by save into memory, the tables are read directly from the mapping
+     * @param path, the file to load
+     * @return the additive database
+     * @throws IOException if the file cannot be read or is not a pattern database of this version
+     */
+    public static AdditivePatternDatabase load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER || buffer.getInt() != MAGIC) {
+            throw new IOException(path + " is not a pattern database");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(path + " has version " + version + ", expected " + VERSION);
+        }
+        int rows = buffer.getInt();
+        int cols = buffer.getInt();
+        if (rows <= 0 || cols <= 0 || rows * cols > SlidingState.PACKED_CELLS) {
+            throw new IOException(path + " was built for a board of " + rows + "x" + cols);
+        }
+        long goal = buffer.getLong();
+        try {
+            //each group takes at least its tile count and table length, so a corrupt count cannot allocate much
+            PatternDatabase[] patterns = new PatternDatabase[count(buffer, 8)];
+            for (int i = 0; i < patterns.length; i++) {
+                int[] tiles = new int[count(buffer, 4)];
+                for (int j = 0; j < tiles.length; j++) {
+                    tiles[j] = buffer.getInt();
+                }
+                int length = buffer.getInt();
+                ByteBuffer table = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                patterns[i] = new PatternDatabase(tiles, rows, cols, table);
+            }
+            return new AdditivePatternDatabase(rows, cols, goal, patterns);
+        } catch (RuntimeException e) {
+            throw new IOException(path + " is corrupt", e);
+        }
+    }
+
+    /**
+     * Reads the count of the entries that follow and checks the rest of the buffer can hold them
+     * @param buffer, the buffer, positioned at the count
+     * @param bytes, the fewest bytes an entry takes
+     * @return the count
+     * @throws IllegalArgumentException if the count is negative or too large
+     */
+    private static int count(ByteBuffer buffer, int bytes) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / bytes) {
+            throw new IllegalArgumentException("Count " + count + " with " + buffer.remaining() + " bytes left");
+        }
+        return count;
+    }
+}
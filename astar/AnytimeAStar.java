@@ -0,0 +1,223 @@
+/*
+ * Anytime repairing A* (ARA*), finds a first solution quickly with a weighted heuristic and improves it
+ * while time remains. Each pass orders the open list by g + weight * h, which finds a path costing at most
+ * weight times the optimal one, then lowers the weight and reuses the nodes found so far instead of starting over.
+ * States whose path cost drops after they were expanded in a pass wait in an inconsistent list until the next pass.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class AnytimeAStar<T extends AStarSolver.AIState> {
+
+    /*
+     * Open list priorities are g + weight * h scaled by this and rounded, so weights with two decimals are exact.
+     * Scaled priorities are large and sparse, so they are queued on a heap rather than the solver's open list,
+     * whose buckets are sized for small integer costs.
+     */
+    private static final int PRIORITY_SCALE = 100;
+    /* How many nodes are expanded between checks of the deadline */
+    private static final int DEADLINE_INTERVAL = 64;
+    /* How much the weight is lowered after each pass */
+    private static final double WEIGHT_STEP = 0.5;
+
+    private final AStarSolver<T> solver;
+
+    private OpenList<Node<T>> openSet;
+    private final LongHashMap<Node<T>> reached = new LongHashMap<>();
+    private LongHashSet closedSet = new LongHashSet();
+    private ArrayList<Node<T>> inconsistent = new ArrayList<>();
+    /* Stays empty, closed states are still generated so cheaper paths to them are noticed */
+    private final LongHashSet noClosed = new LongHashSet(1);
+    private T goal;
+    private long deadline;
+    private int expanded = 0;
+    private SearchStats stats;
+    private boolean timed;
+
+    /*
+     *    A node of the search tree
+     */
+    private static class Node<T> {
+
+        private final T data;
+        private final Node<T> parent;
+
+        private Node(T data, Node<T> parent) {
+            this.data = data;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * @param solver, provides the successors and open list
+     */
+    public AnytimeAStar(AStarSolver<T> solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Searches until the deadline or until the best path is proven optimal. An AnytimeAStar solves one problem,
+     * create a new one for each search.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param weight, the weight of the first pass, at least 1, higher finds a first path sooner
+     * @param timeout, how long the search may run
+     * @param unit, the unit of the timeout
+     * @param onImprovement, receives each cheaper path as it is found, or null
+     * @return the best path found and its bound, the path is null if none was found in time
+     */
+    public AnytimeResult<T> solve(T initial, T goal, double weight, long timeout, TimeUnit unit,
+            Consumer<AnytimeResult<T>> onImprovement) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("The weight must be at least 1");
+        }
+        if (this.goal != null) {
+            throw new IllegalStateException("An AnytimeAStar solves a single problem");
+        }
+        long start = System.nanoTime();
+        this.deadline = start + unit.toNanos(timeout);
+        this.goal = goal;
+        this.stats = new SearchStats("anytimeAStar");
+        this.timed = solver.getSearchListener() != null;
+        solver.initialize(initial, goal);
+        openSet = new HeapOpenList<>();
+        Node<T> root = new Node<>(initial, null);
+        reached.put(initial.key(), root);
+        openSet.add(root, priority(initial, weight), initial.g);
+
+        AnytimeResult<T> best = new AnytimeResult<>(null, Double.POSITIVE_INFINITY);
+        while (true) {
+            boolean finished = improvePath(weight);
+            Node<T> goalNode = reached.get(goal.key());
+            ArrayList<Node<T>> pending = drain();
+            if (goalNode != null) {
+                //every optimal path has a node left with its optimal g, so the lowest g + h left bounds the optimal cost
+                int lowest = Integer.MAX_VALUE;
+                for (Node<T> node : pending) {
+                    lowest = Math.min(lowest, node.data.f);
+                }
+                double bound = (finished && weight == 1) || lowest == Integer.MAX_VALUE
+                        ? 1 : Math.max(1, (double) goalNode.data.g / lowest);
+                if (best.getPath() == null || goalNode.data.g < best.getCost() || bound < best.getBound()) {
+                    best = new AnytimeResult<>(reconstructPath(goalNode), Math.min(bound, best.getBound()));
+                    if (onImprovement != null) {
+                        onImprovement.accept(best);
+                    }
+                }
+            }
+            if (!finished || best.isOptimal() || pending.isEmpty()) {
+                break;
+            }
+            //lower the weight straight to the bound if that skips passes that cannot help
+            weight = Math.max(1, Math.min(weight - WEIGHT_STEP, best.getBound()));
+            openSet = new HeapOpenList<>();
+            for (Node<T> node : pending) {
+                openSet.add(node, priority(node.data, weight), node.data.g);
+            }
+        }
+        solver.finish(stats, start, best.getPath());
+        return best;
+    }
+
+    /**
+     * Expands nodes until no open node has a lower priority than the goal
+     * @return false if the deadline passed or the thread was interrupted
+     */
+    private boolean improvePath(double weight) {
+        long goalKey = goal.key();
+        while (!openSet.isEmpty()) {
+            Node<T> goalNode = reached.get(goalKey);
+            if (goalNode != null && priority(goalNode.data, weight) <= openSet.peekF()) {
+                return true;
+            }
+            //checked before polling so every node left still counts towards the bound
+            if (++expanded % DEADLINE_INTERVAL == 0
+                    && (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted())) {
+                return false;
+            }
+            Node<T> current = openSet.poll();
+            long key = current.data.key();
+            //skip nodes that were queued again with a lower path cost
+            if (reached.get(key) != current || !closedSet.add(key)) {
+                stats.duplicatesPruned++;
+                continue;
+            }
+            stats.expanded++;
+            stats.closedSize(closedSet.size());
+            long begin = timed ? System.nanoTime() : 0;
+            ArrayList<T> toQueue = solver.successors(current.data, noClosed, goal, timed ? stats : null);
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - begin;
+            }
+            stats.generated += toQueue.size();
+            for (T state : toQueue) {
+                long childKey = state.key();
+                Node<T> known = reached.get(childKey);
+                if (known != null && known.data.g <= state.g) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                Node<T> node = new Node<>(state, current);
+                reached.put(childKey, node);
+                if (closedSet.contains(childKey)) {
+                    inconsistent.add(node);
+                } else {
+                    openSet.add(node, priority(state, weight), state.g);
+                }
+            }
+            stats.openSize(openSet.size() + inconsistent.size());
+        }
+        return true;
+    }
+
+    /**
+     * Empties the open and inconsistent lists and the closed set for the next pass
+     * @return the cheapest node of each state that was in either list
+     */
+    private ArrayList<Node<T>> drain() {
+        ArrayList<Node<T>> pending = new ArrayList<>(openSet.size() + inconsistent.size());
+        LongHashSet seen = new LongHashSet();
+        Node<T> node;
+        while ((node = openSet.poll()) != null) {
+            keep(pending, seen, node);
+        }
+        for (Node<T> stale : inconsistent) {
+            keep(pending, seen, stale);
+        }
+        inconsistent = new ArrayList<>();
+        closedSet = new LongHashSet();
+        return pending;
+    }
+
+    private void keep(ArrayList<Node<T>> pending, LongHashSet seen, Node<T> node) {
+        //a state may be queued more than once, keep only its cheapest node
+        long key = node.data.key();
+        if (reached.get(key) == node && seen.add(key)) {
+            pending.add(node);
+        }
+    }
+
+    private int priority(T state, double weight) {
+        int h = state.f - state.g;
+        return (int) Math.round((state.g + weight * h) * PRIORITY_SCALE);
+    }
+
+    private ArrayList<T> reconstructPath(Node<T> goalNode) {
+        ArrayList<T> list = new ArrayList<>();
+        for (Node<T> node = goalNode; node != null; node = node.parent) {
+            list.add(node.data);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+}
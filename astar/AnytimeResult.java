@@ -0,0 +1,60 @@
+/*
+ * The best path found by an anytime search and how far from optimal it may be
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class AnytimeResult<T extends AStarSolver.AIState> {
+
+    private final ArrayList<T> path;
+    private final double bound;
+
+    /**
+     * @param path, the path, or null if none was found
+     * @param bound, the most the path cost can be over the optimal cost, as a ratio
+     */
+    public AnytimeResult(ArrayList<T> path, double bound) {
+        this.path = path;
+        this.bound = bound;
+    }
+
+    /**
+     * @return the best path found, or null if none was found in time
+     */
+    public ArrayList<T> getPath() {
+        return path;
+    }
+
+    /**
+     * @return the path cost, or -1 if no path was found
+     */
+    public int getCost() {
+        return path == null ? -1 : path.get(path.size() - 1).g;
+    }
+
+    /**
+     * @return the path cost is at most this times the optimal cost, infinite if no path was found
+     */
+    public double getBound() {
+        return bound;
+    }
+
+    /**
+     * @return true if the path is proven to be a shortest path
+     */
+    public boolean isOptimal() {
+        return bound == 1;
+    }
+
+    @Override
+    public String toString() {
+        return path == null ? "no path" : "cost=" + getCost() + " bound=" + bound;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Scores many packed boards at once with the manhattan distance plus linear conflict of a goal
+ * The tables are laid out so every step is a shift, a mask or an array read, with no branches on the tiles:
+ * the distance of each tile on a cell is a 4 bit entry of one long per cell, and the conflict of each
+ * line is read from a table indexed by the tiles in the line.
+ * forGoal returns VectorBatchHeuristic, which runs the same steps on several boards per instruction,
+ * when the JVM was started with --add-modules jdk.incubator.vector, and this scalar kernel otherwise.
+ * 10/17/26
+ */
+package astar;
+
+import java.lang.reflect.Constructor;
+
+/**
+ *
+ * @author Joseph
+ */
+public class BatchHeuristic {
+
+    protected static final int SIZE = PuzzleState.BOARD_SIZE;
+    protected static final int CELLS = SIZE * SIZE;
+    /* A line of tiles packed 4 bits per tile */
+    protected static final int LINE_BITS = SIZE << 2;
+    protected static final long LINE_MASK = (1L << LINE_BITS) - 1;
+
+    /* Set to false to use the scalar kernel even when the vector module is present */
+    private static final String VECTOR_PROPERTY = "astar.vector";
+    /* The constructor of the vector kernel, or null if it cannot run in this JVM */
+    private static final Constructor<? extends BatchHeuristic> VECTOR = vectorKernel();
+
+    private final GoalTable table;
+    /* The distance of tile t on cell c to its goal cell, in bits 4 * t of distances[c] */
+    protected final long[] distances = new long[CELLS];
+    /* The conflict of each line, rows then columns, indexed by line << LINE_BITS | the tiles in the line */
+    protected final int[] conflicts = new int[(2 * SIZE) << LINE_BITS];
+
+    /**
+     * Builds the tables of the scalar kernel, see forGoal for the fastest kernel available
+     * @param table, the table of the goal
+     */
+    public BatchHeuristic(GoalTable table) {
+        this.table = table;
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int tile = 1; tile < CELLS; tile++) {
+                distances[cell] |= (long) table.distance(tile, cell) << (tile << 2);
+            }
+        }
+        for (int bits = 0; bits <= LINE_MASK; bits++) {
+            if (!isLine(bits)) {
+                continue;
+            }
+            for (int i = 0; i < SIZE; i++) {
+                conflicts[i << LINE_BITS | bits] = table.rowConflict((long) bits << (i * LINE_BITS), i);
+                conflicts[(SIZE + i) << LINE_BITS | bits] = table.colConflict(spread(bits, i), i);
+            }
+        }
+    }
+
+    /**
+     * Creates the fastest kernel this JVM can run for a goal
+     * @param table, the table of the goal
+     * @return the vector kernel if the vector module is present, otherwise the scalar one
+     */
+    public static BatchHeuristic forGoal(GoalTable table) {
+        if (VECTOR != null) {
+            try {
+                return VECTOR.newInstance(table);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("The vector kernel could not be created", e);
+            }
+        }
+        return new BatchHeuristic(table);
+    }
+
+    /**
+     * Checks whether the kernel was built for a goal
+     * @param goal, the goal state
+     * @return true or false
+     */
+    public boolean isFor(PuzzleState goal) {
+        return table.isFor(goal);
+    }
+
+    /**
+     * @return true if several boards are scored per instruction
+     */
+    public boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Scores one board, equal to GoalTable.estimate
+     * @param board, the packed board
+     * @return the manhattan distance plus the linear conflict
+     */
+    public int estimate(long board) {
+        int h = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            h += (int) (distances[cell] >>> (((board >>> (cell << 2)) & 0xF) << 2)) & 0xF;
+        }
+        for (int i = 0; i < SIZE; i++) {
+            h += conflicts[i << LINE_BITS | (int) ((board >>> (i * LINE_BITS)) & LINE_MASK)];
+            h += conflicts[(SIZE + i) << LINE_BITS | (int) column(board, i)];
+        }
+        return h;
+    }
+
+    /**
+     * Scores a batch of boards, a kernel scores one batch at a time since the vector kernel keeps scratch space
+     * @param boards, the packed boards
+     * @param h, receives the heuristic of each board
+     * @param count, the number of boards
+     */
+    public void estimate(long[] boards, int[] h, int count) {
+        for (int i = 0; i < count; i++) {
+            h[i] = estimate(boards[i]);
+        }
+    }
+
+    /**
+     * Gathers the tiles of a column into a line, the tile of row i at bits 4 * i
+     */
+    protected static long column(long board, int col) {
+        long bits = 0;
+        for (int i = 0; i < SIZE; i++) {
+            bits |= (board >>> ((i * (SIZE - 1) + col) << 2)) & (0xFL << (i << 2));
+        }
+        return bits;
+    }
+
+    /**
+     * Places a line of tiles down a column of an otherwise empty board
+     */
+    private static long spread(int bits, int col) {
+        long board = 0;
+        for (int i = 0; i < SIZE; i++) {
+            board |= (long) ((bits >>> (i << 2)) & 0xF) << ((i * SIZE + col) << 2);
+        }
+        return board;
+    }
+
+    /**
+     * @return true if every tile in a line is on the board, lines that cannot occur are left at 0
+     */
+    private static boolean isLine(int bits) {
+        for (int i = 0; i < SIZE; i++) {
+            if (((bits >>> (i << 2)) & 0xF) >= CELLS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the vector kernel, it is only loaded when its module is present since its class
+     * cannot be linked otherwise
+     * @return its constructor, or null to use the scalar kernel
+     */
+    private static Constructor<? extends BatchHeuristic> vectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Class<? extends BatchHeuristic> kernel = Class.forName("astar.VectorBatchHeuristic")
+                    .asSubclass(BatchHeuristic.class);
+            if (!(Boolean) kernel.getDeclaredMethod("isSupported").invoke(null)) {
+                return null;
+            }
+            return kernel.getDeclaredConstructor(GoalTable.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
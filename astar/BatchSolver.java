@@ -0,0 +1,282 @@
+/*
+ * Solves many independent problems in parallel on an executor
+ * Every problem gets its own AStarSolver from the supplier so no solver state is shared between threads
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class BatchSolver<T extends AStarSolver.AIState> {
+
+    /* Interrupts searches that run past their time limit, shared by every batch solver */
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "astar-batch-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /* Creates a fresh solver for a problem and runs the search mode with it */
+    private final BiFunction<T, T, ArrayList<T>> solve;
+    private final ExecutorService executor;
+
+    /**
+     * The search mode run for each problem, such as AStarSolver::AStar, or InPlaceSolver::IDAStar
+     * for solvers that move states in place
+     * @param <T>, object represents an AI state
+     * @param <S>, the solvers the mode runs on
+     */
+    @FunctionalInterface
+    public interface Search<T extends AStarSolver.AIState, S extends AStarSolver<T>> {
+
+        ArrayList<T> solve(S solver, T initial, T goal);
+    }
+
+    /**
+     * A pair of states to find a path between, states must not be shared with other problems
+     * since searching sets their path cost and heuristic value
+     * @param <T>, object represents an AI state
+     */
+    public static class Problem<T extends AStarSolver.AIState> {
+
+        private final T initial;
+        private final T goal;
+
+        public Problem(T initial, T goal) {
+            this.initial = initial;
+            this.goal = goal;
+        }
+
+        public T getInitial() {
+            return initial;
+        }
+
+        public T getGoal() {
+            return goal;
+        }
+    }
+
+    public enum Status {
+        SOLVED, NO_SOLUTION, TIMED_OUT, FAILED
+    }
+
+    /**
+     * The outcome of one problem
+     * @param <T>, object represents an AI state
+     */
+    public static class Result<T extends AStarSolver.AIState> {
+
+        private final int index;
+        private final Problem<T> problem;
+        private final Status status;
+        private final ArrayList<T> path;
+        private final Throwable error;
+        private final long nanos;
+
+        private Result(int index, Problem<T> problem, Status status, ArrayList<T> path, Throwable error, long nanos) {
+            this.index = index;
+            this.problem = problem;
+            this.status = status;
+            this.path = path;
+            this.error = error;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the position of the problem in the input
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Problem<T> getProblem() {
+            return problem;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the shortest path, or null unless the status is SOLVED
+         */
+        public ArrayList<T> getPath() {
+            return path;
+        }
+
+        /**
+         * @return the exception thrown by the search, or null unless the status is FAILED
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return the time spent searching in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Solves with AStar on the common fork join pool
+     * @param solvers, creates a new solver for each problem
+     */
+    public BatchSolver(Supplier<? extends AStarSolver<T>> solvers) {
+        this(solvers, ForkJoinPool.commonPool(), AStarSolver::AStar);
+    }
+
+    /**
+     * @param <S>, the solvers created, the search mode may need a particular kind such as InPlaceSolver
+     * @param solvers, creates a new solver for each problem
+     * @param executor, runs the searches, it is not shut down by the batch solver
+     * @param search, the search mode run for each problem
+     */
+    public <S extends AStarSolver<T>> BatchSolver(Supplier<? extends S> solvers, ExecutorService executor,
+            Search<T, ? super S> search) {
+        this.solve = (initial, goal) -> search.solve(solvers.get(), initial, goal);
+        this.executor = executor;
+    }
+
+    /**
+     * Solves every problem and waits for all of them
+     * @param problems, the problems to solve
+     * @param timeout, the longest a single search may run, or 0 for no limit
+     * @param unit, the unit of the timeout
+     * @return the results in the order of the problems
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<Result<T>> solveAll(List<Problem<T>> problems, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Future<Result<T>>> futures = new ArrayList<>(problems.size());
+        for (int i = 0; i < problems.size(); i++) {
+            futures.add(executor.submit(task(i, problems.get(i), unit.toNanos(timeout))));
+        }
+        List<Result<T>> results = new ArrayList<>(problems.size());
+        try {
+            for (Future<Result<T>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            //tasks catch everything the search throws
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (results.size() < futures.size()) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Solves every problem, passing each result to a consumer on the calling thread as soon as it is ready
+     * @param problems, the problems to solve
+     * @param timeout, the longest a single search may run, or 0 for no limit
+     * @param unit, the unit of the timeout
+     * @param onResult, receives the results in the order they complete
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void solveEach(List<Problem<T>> problems, long timeout, TimeUnit unit, Consumer<Result<T>> onResult)
+            throws InterruptedException {
+        CompletionService<Result<T>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Result<T>>> futures = new ArrayList<>(problems.size());
+        for (int i = 0; i < problems.size(); i++) {
+            futures.add(completion.submit(task(i, problems.get(i), unit.toNanos(timeout))));
+        }
+        int received = 0;
+        try {
+            for (; received < problems.size(); received++) {
+                onResult.accept(completion.take().get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            if (received < problems.size()) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    /**
+     * Creates the task that solves one problem with a fresh solver, a watchdog interrupts it
+     * once the time limit passes and the search returns at its next interruption check
+     */
+    private Callable<Result<T>> task(int index, Problem<T> problem, long timeoutNanos) {
+        return () -> {
+            Thread thread = Thread.currentThread();
+            Watch watch = new Watch(thread);
+            ScheduledFuture<?> alarm = timeoutNanos > 0
+                    ? WATCHDOG.schedule(watch::fire, timeoutNanos, TimeUnit.NANOSECONDS) : null;
+            long start = System.nanoTime();
+            try {
+                ArrayList<T> path = solve.apply(problem.getInitial(), problem.getGoal());
+                long nanos = System.nanoTime() - start;
+                if (watch.finish()) {
+                    return new Result<>(index, problem, Status.TIMED_OUT, null, null, nanos);
+                }
+                return new Result<>(index, problem, path == null ? Status.NO_SOLUTION : Status.SOLVED, path, null, nanos);
+            } catch (RuntimeException | Error e) {
+                watch.finish();
+                return new Result<>(index, problem, Status.FAILED, null, e, System.nanoTime() - start);
+            } finally {
+                if (alarm != null) {
+                    alarm.cancel(false);
+                }
+            }
+        };
+    }
+
+    /*
+     *    Interrupts a worker thread at most once and only while its search is running,
+     *    so an interrupt never leaks into the next task run by the same thread
+     */
+    private static class Watch {
+
+        private final Thread thread;
+        private boolean finished = false;
+        private boolean fired = false;
+
+        private Watch(Thread thread) {
+            this.thread = thread;
+        }
+
+        private synchronized void fire() {
+            if (!finished) {
+                fired = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Ends the watch and clears the interrupt it may have raised
+         * @return true if the time limit passed
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            if (fired) {
+                Thread.interrupted();
+            }
+            return fired;
+        }
+    }
+}
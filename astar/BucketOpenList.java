@@ -0,0 +1,127 @@
+/*
+ * An open list made of stacks indexed by f and then by g, for problems where f is a small
+ * non negative integer such as unit cost puzzles. Adding and polling are O(1) amortized.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ * @param <E>, the type of element held by the list
+ */
+public class BucketOpenList<E> implements OpenList<E> {
+
+    private Bucket[] buckets = new Bucket[64];
+    /* The lowest f that may hold an element */
+    private int minF = Integer.MAX_VALUE;
+    private int size = 0;
+
+    /*
+     *    All elements with the same f, kept as one stack per g so the deepest
+     *    element is expanded first and the most recent one within a g
+     */
+    private static class Bucket {
+
+        private Object[][] stacks = new Object[16][];
+        private int[] sizes = new int[16];
+        private int maxG = -1;
+
+        private void push(Object element, int g) {
+            if (g >= stacks.length) {
+                int length = Math.max(g + 1, stacks.length << 1);
+                stacks = Arrays.copyOf(stacks, length);
+                sizes = Arrays.copyOf(sizes, length);
+            }
+            Object[] stack = stacks[g];
+            if (stack == null) {
+                stack = stacks[g] = new Object[16];
+            } else if (sizes[g] == stack.length) {
+                stack = stacks[g] = Arrays.copyOf(stack, stack.length << 1);
+            }
+            stack[sizes[g]++] = element;
+            if (g > maxG) {
+                maxG = g;
+            }
+        }
+
+        private boolean isEmpty() {
+            while (maxG >= 0 && sizes[maxG] == 0) {
+                maxG--;
+            }
+            return maxG < 0;
+        }
+
+        private Object pop() {
+            while (maxG >= 0 && sizes[maxG] == 0) {
+                maxG--;
+            }
+            if (maxG < 0) {
+                return null;
+            }
+            Object[] stack = stacks[maxG];
+            Object element = stack[--sizes[maxG]];
+            stack[sizes[maxG]] = null;
+            return element;
+        }
+    }
+
+    /**
+     * Adds an element to the list
+     * @param element, the element to add
+     * @param f, the estimated total cost of the element, must not be negative
+     * @param g, the path cost of the element, must not be negative
+     */
+    @Override
+    public void add(E element, int f, int g) {
+        if (f < 0 || g < 0) {
+            throw new IllegalArgumentException("Bucket open lists need non negative f and g values");
+        }
+        if (f >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(f + 1, buckets.length << 1));
+        }
+        if (buckets[f] == null) {
+            buckets[f] = new Bucket();
+        }
+        buckets[f].push(element, g);
+        size++;
+        if (f < minF) {
+            minF = f;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0) {
+            return null;
+        }
+        while (true) {
+            Bucket bucket = buckets[minF];
+            Object element = bucket == null ? null : bucket.pop();
+            if (element != null) {
+                size--;
+                return (E) element;
+            }
+            minF++;
+        }
+    }
+
+    @Override
+    public int peekF() {
+        if (size == 0) {
+            return Integer.MAX_VALUE;
+        }
+        while (buckets[minF] == null || buckets[minF].isEmpty()) {
+            minF++;
+        }
+        return minF;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * The exact number of moves from every reachable board to one goal, one byte per board
+ * Built by a single breadth first search backwards from the goal, then a shortest path is found by always
+ * moving to a neighbour one move closer, which takes one lookup per move and no search at all.
+ * Only half of the orderings of the tiles can be reached, so a board is ranked by the cell of its 0 and the
+ * order of all but the last two of its other tiles read in cell order, the last two are fixed by parity.
+ * For the 3x3 board that is 9 * 8! / 2 = 181440 entries. A board of the other parity shares its rank with
+ * a reachable board, so its parity is checked before it is looked up.
+ * 10/17/26
+ */
+package astar;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ *
+ * @author Joseph
+ */
+public class DistanceTable {
+
+    /*
+     *    File layout, all values big endian:
+     *    int magic, int version, int board size, long goal board, int table length, the table bytes
+     */
+    private static final int MAGIC = 0x44495354;
+    private static final int VERSION = 1;
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    /* Marks a board that cannot reach the goal */
+    private static final int UNREACHABLE = 0xFF;
+    /* The rank weight of each of the tiles read in cell order, (CELLS - 2 - i)! / 2 */
+    private static final int[] WEIGHTS = new int[Math.max(0, CELLS - 3)];
+    /* The number of entries for each cell of the 0, (CELLS - 1)! / 2 */
+    private static final int PER_BLANK;
+
+    static {
+        int factorial = 1;
+        for (int i = 2; i <= CELLS - 1; i++) {
+            factorial *= i;
+        }
+        PER_BLANK = CELLS <= 9 ? factorial / 2 : 0;
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            int weight = 1;
+            for (int j = 3; j <= CELLS - 2 - i; j++) {
+                weight *= j;
+            }
+            WEIGHTS[i] = weight;
+        }
+    }
+
+    /* The goal the table was built for */
+    private final long goal;
+    private final int goalParity;
+    private final ByteBuffer table;
+
+    /**
+     * @param goal, the packed goal board the table was built for
+     * @param table, the distance of each board by rank
+     */
+    private DistanceTable(long goal, ByteBuffer table) {
+        this.goal = goal;
+        this.goalParity = parity(goal);
+        this.table = table;
+    }
+
+    /**
+     * Builds the table with a breadth first search from the goal
+     * @param goal, the goal state
+     * @return the table
+     */
+    public static DistanceTable build(PuzzleState goal) {
+        if (CELLS > 9) {
+            throw new IllegalStateException("A distance table for a board of size " + SIZE + " does not fit in memory");
+        }
+        int entries = CELLS * PER_BLANK;
+        byte[] distances = new byte[entries];
+        Arrays.fill(distances, (byte) UNREACHABLE);
+        long[] queue = new long[entries];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = goal.getBoard();
+        distances[rank(goal.getBoard())] = 0;
+        while (head < tail) {
+            long board = queue[head++];
+            int distance = distances[rank(board)] & 0xFF;
+            int blank = blank(board);
+            for (int direction = 0; direction < PuzzleState.ACTIONS.length; direction++) {
+                int to = neighbour(blank, direction);
+                if (to < 0) {
+                    continue;
+                }
+                long next = slide(board, blank, to);
+                int index = rank(next);
+                if ((distances[index] & 0xFF) == UNREACHABLE) {
+                    distances[index] = (byte) (distance + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return new DistanceTable(goal.getBoard(), ByteBuffer.wrap(distances));
+    }
+
+    /**
+     * Checks whether the table was built for a goal
+     * @param goal, the goal state
+     * @return true or false
+     */
+    public boolean isBuiltFor(PuzzleState goal) {
+        return this.goal == goal.getBoard();
+    }
+
+    /**
+     * Looks up the number of moves from a board to the goal
+     * @param board, the packed board
+     * @return the distance, or -1 if the board cannot reach the goal
+     */
+    public int distance(long board) {
+        return parity(board) == goalParity ? lookup(board) : -1;
+    }
+
+    private int lookup(long board) {
+        int distance = table.get(rank(board)) & 0xFF;
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    /**
+     * Finds a shortest path to the goal by moving to a neighbour one move closer each step
+     * @param initial, the initial state
+     * @return the shortest path, or null if the initial state cannot reach the goal
+     */
+    public ArrayList<PuzzleState> solve(PuzzleState initial) {
+        int remaining = distance(initial.getBoard());
+        if (remaining < 0) {
+            return null;
+        }
+        ArrayList<PuzzleState> list = new ArrayList<>(remaining + 1);
+        PuzzleState current = initial.copy();
+        current.setAction("");
+        current.g = 0;
+        current.f = remaining;
+        list.add(current);
+        while (remaining > 0) {
+            int blank = blank(current.getBoard());
+            PuzzleState before = current;
+            for (int direction = 0; direction < PuzzleState.ACTIONS.length; direction++) {
+                int to = neighbour(blank, direction);
+                if (to >= 0 && lookup(slide(current.getBoard(), blank, to)) == remaining - 1) {
+                    PuzzleState next = current.copy();
+                    next.move(direction);
+                    next.setAction(PuzzleState.ACTIONS[direction]);
+                    next.g = current.g + 1;
+                    next.f = next.g + remaining - 1;
+                    list.add(next);
+                    current = next;
+                    break;
+                }
+            }
+            if (current == before) {
+                throw new IllegalStateException("The table has no neighbour one move closer, it is corrupt");
+            }
+            remaining--;
+        }
+        return list;
+    }
+
+    /**
+     * Writes the table to a file, replacing it if it exists
+     * @param path, the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(24);
+            header.putInt(MAGIC).putInt(VERSION).putInt(SIZE).putLong(goal).putInt(table.capacity());
+            writeFully(channel, header.flip());
+            writeFully(channel, table.duplicate().clear());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Maps a file written by save into memory, distances are read directly from the mapping
+     * @param path, the file to load
+     * @return the table
+     * @throws IOException if the file cannot be read or is not a distance table of this version and board size
+     */
+    public static DistanceTable load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < 24 || buffer.getInt() != MAGIC) {
+            throw new IOException(path + " is not a distance table");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(path + " has version " + version + ", expected " + VERSION);
+        }
+        int size = buffer.getInt();
+        if (size != SIZE) {
+            throw new IOException(path + " was built for a board of size " + size);
+        }
+        long goal = buffer.getLong();
+        int length = buffer.getInt();
+        if (length != CELLS * PER_BLANK || buffer.remaining() < length) {
+            throw new IOException(path + " is corrupt");
+        }
+        return new DistanceTable(goal, buffer.slice(buffer.position(), length));
+    }
+
+    /**
+     * Creates a supplier that loads the table on first use, building and saving it first if the file
+     * is missing or was built for another goal. Safe to call from many threads.
+     * @param path, the file the table is kept in
+     * @param goal, the goal state
+     * @return the supplier, it throws UncheckedIOException if the file cannot be read or written
+     */
+    public static Supplier<DistanceTable> lazy(Path path, PuzzleState goal) {
+        return new Supplier<>() {
+            private volatile DistanceTable table;
+
+            @Override
+            public DistanceTable get() {
+                DistanceTable loaded = table;
+                if (loaded == null) {
+                    synchronized (this) {
+                        loaded = table;
+                        if (loaded == null) {
+                            table = loaded = loadOrBuild(path, goal);
+                        }
+                    }
+                }
+                return loaded;
+            }
+        };
+    }
+
+    private static DistanceTable loadOrBuild(Path path, PuzzleState goal) {
+        try {
+            if (Files.exists(path)) {
+                DistanceTable loaded = load(path);
+                if (loaded.isBuiltFor(goal)) {
+                    return loaded;
+                }
+            }
+            DistanceTable built = build(goal);
+            built.save(path);
+            return built;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ranks a board by the cell of its 0 and the order of its other tiles, see the class comment
+     * The tiles after a tile that are smaller than it are the smaller tiles not yet read, which a mask of
+     * the tiles read so far counts without copying the tiles out of the board
+     */
+    private static int rank(long board) {
+        int blank = -1;
+        int seen = 0;
+        int read = 0;
+        int rank = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int tile = (int) ((board >>> (cell << 2)) & 0xF);
+            if (tile == 0) {
+                blank = cell;
+                continue;
+            }
+            if (read < WEIGHTS.length) {
+                int smaller = tile - 1 - Integer.bitCount(seen & ((1 << tile) - 1));
+                rank += smaller * WEIGHTS[read];
+            }
+            seen |= 1 << tile;
+            read++;
+        }
+        return blank * PER_BLANK + rank;
+    }
+
+    /**
+     * Finds the parity no move can change, the inversions of the tiles read in cell order,
+     * plus the row of the 0 on boards of even width where a vertical move passes an odd number of tiles
+     */
+    private static int parity(long board) {
+        int inversions = 0;
+        for (int a = 0; a < CELLS; a++) {
+            int tile = (int) ((board >>> (a << 2)) & 0xF);
+            for (int b = a + 1; b < CELLS && tile != 0; b++) {
+                int other = (int) ((board >>> (b << 2)) & 0xF);
+                if (other != 0 && other < tile) {
+                    inversions++;
+                }
+            }
+        }
+        if (SIZE % 2 == 0) {
+            inversions += blank(board) / SIZE;
+        }
+        return inversions & 1;
+    }
+
+    private static int blank(long board) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (((board >>> (cell << 2)) & 0xF) == 0) {
+                return cell;
+            }
+        }
+        throw new IllegalArgumentException("A board needs a 0");
+    }
+
+    /**
+     * @return the cell next to a cell in a direction, or -1 if it is against the edge
+     */
+    private static int neighbour(int cell, int direction) {
+        int row = cell / SIZE;
+        int col = cell % SIZE;
+        switch (direction) {
+            case PuzzleState.UP:
+                return row > 0 ? cell - SIZE : -1;
+            case PuzzleState.DOWN:
+                return row < SIZE - 1 ? cell + SIZE : -1;
+            case PuzzleState.LEFT:
+                return col > 0 ? cell - 1 : -1;
+            default:
+                return col < SIZE - 1 ? cell + 1 : -1;
+        }
+    }
+
+    private static long slide(long board, int blank, int to) {
+        long tile = (board >>> (to << 2)) & 0xF;
+        return (board & ~(0xFL << (to << 2))) | (tile << (blank << 2));
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * External memory A*, keeps the open and closed nodes in files so a search can grow past the heap
+ * Nodes are written to one bucket file per (g, h) pair, a bucket is expanded once every bucket of lower f,
+ * or of equal f and lower g, has been. Duplicates are removed late: a bucket is sorted in runs that fit the
+ * memory budget, the runs are merged, and states already in a closed bucket with the same h and no greater g
+ * are dropped. A state always has the same h, so those are the only buckets its duplicates can be in.
+ * 10/17/26
+ */
+package astar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class ExternalAStar<T extends AStarSolver.AIState> {
+
+    /* A record is a state key followed by the move that reached it, -1 for the root */
+    private static final int RECORD = Long.BYTES + 1;
+    /* Bytes buffered by each open file */
+    private static final int BUFFER = RECORD * 4096;
+
+    private final InPlaceSolver<T> solver;
+    private final Path directory;
+    /* The number of records sorted in memory at once */
+    private final int runRecords;
+
+    private Path work;
+    private int files = 0;
+    /* Record counts of the open buckets, ordered by f and then g */
+    private final TreeMap<Long, Long> open = new TreeMap<>();
+    /* The closed buckets of each h */
+    private final Map<Integer, List<Layer>> closed = new HashMap<>();
+    private long openRecords = 0;
+    private long closedRecords = 0;
+
+    /*
+     *    A closed bucket, its records are sorted by key without duplicates
+     */
+    private static class Layer {
+
+        private final int g;
+        private final Path file;
+
+        private Layer(int g, Path file) {
+            this.g = g;
+            this.file = file;
+        }
+    }
+
+    /**
+     * @param solver, provides the in place moves and restoreState, keys must hold the whole state,
+     * moves must cost at least 1 and move codes must fit in a byte
+     * @param directory, where the bucket files are kept, a fresh directory is made inside it and deleted afterwards
+     * @param memoryBytes, the memory used to sort a bucket, file buffers take a few hundred kilobytes more
+     */
+    public ExternalAStar(InPlaceSolver<T> solver, Path directory, long memoryBytes) {
+        this.solver = solver;
+        this.directory = directory;
+        this.runRecords = (int) Math.max(1024, Math.min(Integer.MAX_VALUE - 8, memoryBytes / RECORD));
+    }
+
+    /**
+     * Finds the shortest path to goal. An ExternalAStar solves one problem, create a new one for each search.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     * @throws IOException if a bucket file cannot be read or written
+     */
+    public ArrayList<T> solve(T initial, T goal) throws IOException {
+        if (work != null) {
+            throw new IllegalStateException("An ExternalAStar solves a single problem");
+        }
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("externalAStar");
+        boolean timed = solver.getSearchListener() != null;
+        work = Files.createTempDirectory(directory, "astar-external-");
+        Map<Long, RecordWriter> writers = new HashMap<>();
+        try {
+            solver.initialize(initial, goal);
+            T state = solver.copyState(initial, -1);
+            writer(writers, 0, solver.estimate(state, goal)).write(state.key(), -1);
+            closeAll(writers);
+            int expanded = 0;
+            while (!open.isEmpty()) {
+                long bucket = open.firstKey();
+                openRecords -= open.remove(bucket);
+                int f = (int) (bucket >>> 32);
+                int g = (int) bucket;
+                int h = f - g;
+                Layer layer = close(g, h, stats);
+                stats.closedSize((int) Math.min(Integer.MAX_VALUE, closedRecords));
+                long start = timed ? System.nanoTime() : 0;
+                try (RecordReader reader = new RecordReader(layer.file)) {
+                    while (reader.next()) {
+                        if (AStarSolver.interrupted(++expanded)) {
+                            return solver.finish(stats, startTime, null);
+                        }
+                        stats.expanded++;
+                        solver.restoreState(state, reader.key);
+                        if (solver.isEqualTo(state, goal)) {
+                            return solver.finish(stats, startTime, reconstructPath(initial, goal, reader.key, reader.move, g));
+                        }
+                        int count = solver.moveCount();
+                        for (int move = 0; move < count; move++) {
+                            //never undo the move that was just made
+                            if (reader.move >= 0 && move == solver.inverseMove(reader.move)) {
+                                continue;
+                            }
+                            int cost = solver.applyMove(state, move);
+                            if (cost < 0) {
+                                continue;
+                            }
+                            if (cost == 0) {
+                                throw new IllegalStateException("External A* needs moves that cost at least 1");
+                            }
+                            int childH = solver.estimateAfterMove(state, move, h, goal, timed ? stats : null);
+                            writer(writers, g + cost, childH).write(state.key(), move);
+                            stats.generated++;
+                            solver.undoMove(state, move);
+                        }
+                    }
+                }
+                closeAll(writers);
+                if (timed) {
+                    stats.expansionNanos += System.nanoTime() - start;
+                }
+                stats.openSize((int) Math.min(Integer.MAX_VALUE, openRecords));
+            }
+            return solver.finish(stats, startTime, null);
+        } finally {
+            for (RecordWriter writer : writers.values()) {
+                writer.channel.close();
+            }
+            try (Stream<Path> paths = Files.walk(work)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static long bucket(int g, int h) {
+        return ((long) (g + h) << 32) | g;
+    }
+
+    private Path openFile(int g, int h) {
+        return work.resolve("open-" + g + "-" + h);
+    }
+
+    /**
+     * Gets the writer of an open bucket, opening it if it is not open yet
+     */
+    private RecordWriter writer(Map<Long, RecordWriter> writers, int g, int h) throws IOException {
+        long bucket = bucket(g, h);
+        RecordWriter writer = writers.get(bucket);
+        if (writer == null) {
+            writer = new RecordWriter(openFile(g, h));
+            writers.put(bucket, writer);
+        }
+        return writer;
+    }
+
+    private void closeAll(Map<Long, RecordWriter> writers) throws IOException {
+        for (Map.Entry<Long, RecordWriter> entry : writers.entrySet()) {
+            entry.getValue().close();
+            open.merge(entry.getKey(), entry.getValue().count, Long::sum);
+            openRecords += entry.getValue().count;
+        }
+        writers.clear();
+    }
+
+    /**
+     * Sorts an open bucket in runs, merges the runs dropping duplicates and states already closed
+     * with the same h and no greater g, and writes what is left to a new closed bucket
+     * @return the closed bucket
+     */
+    private Layer close(int g, int h, SearchStats stats) throws IOException {
+        Path input = openFile(g, h);
+        List<Path> runs = new ArrayList<>();
+        try (RecordReader reader = new RecordReader(input)) {
+            long[] keys = null;
+            byte[] moves = null;
+            boolean more = reader.next();
+            while (more) {
+                if (keys == null) {
+                    int length = (int) Math.min(runRecords, Files.size(input) / RECORD);
+                    keys = new long[length];
+                    moves = new byte[length];
+                }
+                int n = 0;
+                while (more && n < keys.length) {
+                    keys[n] = reader.key;
+                    moves[n++] = (byte) reader.move;
+                    more = reader.next();
+                }
+                sort(keys, moves, n);
+                Path run = work.resolve("run-" + files++);
+                try (RecordWriter writer = new RecordWriter(run)) {
+                    for (int i = 0; i < n; i++) {
+                        writer.write(keys[i], moves[i]);
+                    }
+                }
+                runs.add(run);
+            }
+        }
+        Files.delete(input);
+
+        List<Layer> layers = closed.computeIfAbsent(h, (key) -> new ArrayList<>());
+        List<RecordReader> readers = new ArrayList<>();
+        List<RecordReader> previous = new ArrayList<>();
+        Layer layer = new Layer(g, work.resolve("closed-" + g + "-" + h + "-" + files++));
+        try (RecordWriter writer = new RecordWriter(layer.file)) {
+            for (Path run : runs) {
+                RecordReader reader = new RecordReader(run);
+                readers.add(reader);
+                reader.next();
+            }
+            for (Layer other : layers) {
+                if (other.g <= g) {
+                    RecordReader reader = new RecordReader(other.file);
+                    previous.add(reader);
+                    reader.next();
+                }
+            }
+            boolean first = true;
+            long last = 0;
+            while (true) {
+                RecordReader min = null;
+                for (RecordReader reader : readers) {
+                    if (!reader.done && (min == null || reader.key < min.key)) {
+                        min = reader;
+                    }
+                }
+                if (min == null) {
+                    break;
+                }
+                long key = min.key;
+                int move = min.move;
+                min.next();
+                if (!first && key == last) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                first = false;
+                last = key;
+                if (isClosed(previous, key)) {
+                    stats.duplicatesPruned++;
+                    continue;
+                }
+                writer.write(key, move);
+            }
+            closedRecords += writer.count;
+        } finally {
+            for (RecordReader reader : readers) {
+                reader.close();
+            }
+            for (RecordReader reader : previous) {
+                reader.close();
+            }
+        }
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        layers.add(layer);
+        return layer;
+    }
+
+    /**
+     * Checks whether any of the sorted closed buckets holds a key, keys must be checked in increasing order
+     */
+    private static boolean isClosed(List<RecordReader> previous, long key) throws IOException {
+        boolean found = false;
+        for (RecordReader reader : previous) {
+            while (!reader.done && reader.key < key) {
+                reader.next();
+            }
+            if (!reader.done && reader.key == key) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Walks back from the goal, undoing the move of each record to find its parent and
+     * looking the parent up in the closed buckets of its path cost to find the move that reached it
+     */
+    private ArrayList<T> reconstructPath(T initial, T goal, long key, int move, int g) throws IOException {
+        int[] moves = new int[64];
+        int depth = 0;
+        T state = solver.copyState(initial, -1);
+        while (move >= 0) {
+            if (depth == moves.length) {
+                moves = Arrays.copyOf(moves, depth << 1);
+            }
+            moves[depth++] = move;
+            solver.restoreState(state, key);
+            solver.undoMove(state, move);
+            int cost = solver.applyMove(state, move);
+            solver.undoMove(state, move);
+            key = state.key();
+            g -= cost;
+            move = find(key, g);
+        }
+        for (int i = 0, j = depth - 1; i < j; i++, j--) {
+            int swap = moves[i];
+            moves[i] = moves[j];
+            moves[j] = swap;
+        }
+        return solver.replay(initial, goal, moves, depth);
+    }
+
+    /**
+     * Finds the move that reached a closed state by binary searching the closed buckets of its path cost
+     */
+    private int find(long key, int g) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD);
+        for (List<Layer> layers : closed.values()) {
+            for (Layer layer : layers) {
+                if (layer.g != g) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(layer.file, StandardOpenOption.READ)) {
+                    long low = 0;
+                    long high = channel.size() / RECORD - 1;
+                    while (low <= high) {
+                        long mid = (low + high) >>> 1;
+                        record.clear();
+                        while (record.hasRemaining()) {
+                            if (channel.read(record, mid * RECORD + record.position()) < 0) {
+                                throw new IOException(layer.file + " is truncated");
+                            }
+                        }
+                        long found = record.getLong(0);
+                        if (found < key) {
+                            low = mid + 1;
+                        } else if (found > key) {
+                            high = mid - 1;
+                        } else {
+                            return record.get(Long.BYTES);
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("The parent of a state on the path is not closed, keys must hold the whole state");
+    }
+
+    /**
+     * Heap sorts keys in place, keeping each move next to its key
+     */
+    private static void sort(long[] keys, byte[] moves, int n) {
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, moves, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, moves, 0, end);
+            siftDown(keys, moves, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, byte[] moves, int i, int n) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            if (keys[i] >= keys[child]) {
+                return;
+            }
+            swap(keys, moves, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] keys, byte[] moves, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        byte move = moves[a];
+        moves[a] = moves[b];
+        moves[b] = move;
+    }
+
+    /*
+     *    Appends records to a file through a buffer
+     */
+    private static class RecordWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+        private long count = 0;
+
+        private RecordWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        private void write(long key, int move) throws IOException {
+            if (buffer.remaining() < RECORD) {
+                flush();
+            }
+            buffer.putLong(key).put((byte) move);
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /*
+     *    Reads the records of a file in order through a buffer
+     */
+    private static class RecordReader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+        private long key;
+        private int move;
+        private boolean done = false;
+
+        private RecordReader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        /**
+         * Reads the next record into key and move
+         * @return false once the file is exhausted
+         */
+        private boolean next() throws IOException {
+            if (buffer.remaining() < RECORD) {
+                buffer.compact();
+                while (buffer.position() < RECORD && channel.read(buffer) >= 0) {
+                    //keep reading until a whole record is buffered or the file ends
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD) {
+                    done = true;
+                    return false;
+                }
+            }
+            key = buffer.getLong();
+            move = buffer.get();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
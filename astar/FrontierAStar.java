@@ -0,0 +1,248 @@
+/*
+ * Frontier A*, an A* that keeps only its open list and forgets every node it expands
+ * Each open node remembers which of its moves lead to a neighbour already generated, so it never generates
+ * an expanded state again. This needs moves that can be undone and a consistent heuristic.
+ * With no parent pointers left, each node carries a relay: the state its path passed halfway to the goal.
+ * When the goal is found, the halves are solved again the same way, each bounded by its now known cost,
+ * until every piece is a single move. The recursion is log of the path length deep.
+ * Nodes are a state key and a few numbers, states are rebuilt from keys with restoreState.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class FrontierAStar<T extends AStarSolver.AIState> {
+
+    private final InPlaceSolver<T> solver;
+    /* Copied to make the states that keys are restored into */
+    private T template;
+    private SearchStats stats;
+    private boolean timed;
+    private int expanded = 0;
+    private boolean interrupted = false;
+
+    /*
+     *    An open node, its key, g and f are kept by the open list
+     */
+    private static class Node {
+
+        /* A bit for each move that leads to a neighbour already generated */
+        private int used;
+        /* The last state on the path with g below the relay depth, and its g */
+        private long belowKey;
+        private int belowG;
+        /* The first state on the path with g at or past the relay depth, and its g, or -1 if not reached yet */
+        private long aboveKey;
+        private int aboveG = -1;
+    }
+
+    /*
+     *    The goal of one search, with its cost and the relay of its path
+     */
+    private static class Found {
+
+        private final int cost;
+        /* The key and g of a state strictly inside the path, or -1 if the path is a single move */
+        private final long relayKey;
+        private final int relayG;
+
+        private Found(int cost, long relayKey, int relayG) {
+            this.cost = cost;
+            this.relayKey = relayKey;
+            this.relayG = relayG;
+        }
+    }
+
+    /**
+     * @param solver, provides the in place moves, heuristic and restoreState
+     */
+    public FrontierAStar(InPlaceSolver<T> solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Finds the shortest path to goal. A FrontierAStar solves one problem, create a new one for each search.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> solve(T initial, T goal) {
+        if (stats != null) {
+            throw new IllegalStateException("A FrontierAStar solves a single problem");
+        }
+        if (solver.moveCount() > Integer.SIZE) {
+            throw new UnsupportedOperationException("Frontier A* tracks at most " + Integer.SIZE + " moves per state");
+        }
+        long startTime = System.nanoTime();
+        stats = new SearchStats("frontierAStar");
+        timed = solver.getSearchListener() != null;
+        template = solver.copyState(initial, -1);
+        ArrayList<Long> keys = new ArrayList<>();
+        keys.add(initial.key());
+        if (solve(initial.key(), goal.key(), -1, keys) < 0) {
+            return solver.finish(stats, startTime, null);
+        }
+        //turn consecutive keys back into moves
+        int[] moves = new int[keys.size() - 1];
+        T state = solver.copyState(initial, -1);
+        for (int i = 1; i < keys.size(); i++) {
+            solver.restoreState(state, keys.get(i - 1));
+            moves[i - 1] = moveBetween(state, keys.get(i));
+        }
+        return solver.finish(stats, startTime, solver.replay(initial, goal, moves, moves.length));
+    }
+
+    /**
+     * Appends the keys of a shortest path between two states, all but the first
+     * @param cost, the cost of the path if it is known, or -1
+     * @return the cost of the path, or -1 if there is none or the thread was interrupted
+     */
+    private int solve(long from, long to, int cost, ArrayList<Long> keys) {
+        if (from == to) {
+            return 0;
+        }
+        Found found = search(from, to, cost);
+        if (found == null) {
+            return -1;
+        }
+        if (found.relayG < 0) {
+            keys.add(to);
+            return found.cost;
+        }
+        if (solve(from, found.relayKey, found.relayG, keys) < 0
+                || solve(found.relayKey, to, found.cost - found.relayG, keys) < 0) {
+            return -1;
+        }
+        return found.cost;
+    }
+
+    /**
+     * Searches from one state to another keeping only the frontier
+     * @param cost, the cost of the path if it is known, nodes with a higher f are not queued, or -1
+     * @return the goal's cost and relay, or null if there is no path or the thread was interrupted
+     */
+    private Found search(long from, long to, int cost) {
+        if (interrupted) {
+            return null;
+        }
+        T goal = restore(to);
+        T state = restore(from);
+        int h0 = solver.estimate(state, goal);
+        //the relay is the state on the path halfway to the goal, or halfway by the heuristic if the cost is unknown
+        int mid = Math.max(1, (cost >= 0 ? cost : h0) / 2);
+        IndexedOpenList<Node> openSet = new IndexedOpenList<>();
+        Node root = new Node();
+        root.belowKey = from;
+        root.belowG = 0;
+        openSet.offer(from, root, h0, 0);
+        int count = solver.moveCount();
+        while (!openSet.isEmpty()) {
+            if (AStarSolver.interrupted(++expanded)) {
+                interrupted = true;
+                return null;
+            }
+            int f = openSet.peekF();
+            long key = openSet.peekKey();
+            int g = openSet.peekG();
+            Node node = openSet.poll();
+            solver.restoreState(state, key);
+            if (key == to) {
+                if (node.aboveG > 0 && node.aboveG < g) {
+                    return new Found(g, node.aboveKey, node.aboveG);
+                }
+                if (node.belowG > 0 && node.belowG < g) {
+                    return new Found(g, node.belowKey, node.belowG);
+                }
+                return new Found(g, -1, -1);
+            }
+            stats.expanded++;
+            long start = timed ? System.nanoTime() : 0;
+            int h = f - g;
+            for (int move = 0; move < count; move++) {
+                if ((node.used & (1 << move)) != 0) {
+                    continue;
+                }
+                int moveCost = solver.applyMove(state, move);
+                if (moveCost < 0) {
+                    continue;
+                }
+                int inverse = solver.inverseMove(move);
+                if (inverse < 0) {
+                    throw new UnsupportedOperationException("Frontier A* needs moves that can be undone");
+                }
+                long childKey = state.key();
+                int childG = g + moveCost;
+                int childF = childG + solver.estimateAfterMove(state, move, h, goal, timed ? stats : null);
+                solver.undoMove(state, move);
+                if (cost >= 0 && childF > cost) {
+                    continue;
+                }
+                stats.generated++;
+                Node known = openSet.get(childKey);
+                if (known != null) {
+                    //the child will not generate this state again whichever path to it wins
+                    known.used |= 1 << inverse;
+                }
+                Node child = new Node();
+                child.used = (known == null ? 0 : known.used) | (1 << inverse);
+                if (childG < mid) {
+                    child.belowKey = childKey;
+                    child.belowG = childG;
+                } else {
+                    child.belowKey = node.belowKey;
+                    child.belowG = node.belowG;
+                    if (node.aboveG >= 0) {
+                        child.aboveKey = node.aboveKey;
+                        child.aboveG = node.aboveG;
+                    } else {
+                        child.aboveKey = childKey;
+                        child.aboveG = childG;
+                    }
+                }
+                if (!openSet.offer(childKey, child, childF, childG)) {
+                    stats.duplicatesPruned++;
+                }
+            }
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.openSize(openSet.size());
+        }
+        return null;
+    }
+
+    /**
+     * Builds the state a key was made from
+     */
+    private T restore(long key) {
+        T state = solver.copyState(template, -1);
+        solver.restoreState(state, key);
+        return state;
+    }
+
+    /**
+     * Finds the move between a state and a neighbour
+     * @param state, the state, moved and put back
+     * @param key, the key of the neighbour
+     * @return the move
+     */
+    private int moveBetween(T state, long key) {
+        int count = solver.moveCount();
+        for (int move = 0; move < count; move++) {
+            if (solver.applyMove(state, move) >= 0) {
+                boolean found = state.key() == key;
+                solver.undoMove(state, move);
+                if (found) {
+                    return move;
+                }
+            }
+        }
+        throw new IllegalStateException("The states on a frontier path are not neighbours");
+    }
+}
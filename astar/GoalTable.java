@@ -0,0 +1,163 @@
+/*
+ * Precomputed position of every tile in a goal puzzle, used to evaluate the
+ * manhattan distance and linear conflict heuristics without searching the goal
+ * The heuristic of a child can be found from its parent's since a move changes one tile
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public class GoalTable {
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+
+    /* The packed goal board */
+    private final long goal;
+    /* The row and column of each tile in the goal */
+    private final int[] goalRow;
+    private final int[] goalCol;
+
+    /**
+     * @param goal, the goal state
+     */
+    public GoalTable(PuzzleState goal) {
+        this.goal = goal.getBoard();
+        this.goalRow = new int[SIZE * SIZE];
+        this.goalCol = new int[SIZE * SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                goalRow[goal.tileAt(i, j)] = i;
+                goalCol[goal.tileAt(i, j)] = j;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the table was built for a goal
+     * @param goal, the goal state
+     * @return true or false
+     */
+    public boolean isFor(PuzzleState goal) {
+        return this.goal == goal.getBoard();
+    }
+
+    /**
+     * Calculates the manhattan distance plus the linear conflict of a board
+     * @param board, the packed board
+     * @return the heuristic value
+     */
+    public int estimate(long board) {
+        return manhattan(board) + linearConflict(board);
+    }
+
+    /**
+     * Calculates the sum of the manhattan distances of each tile to its place in the goal
+     * @param board, the packed board
+     * @return the manhattan distance
+     */
+    public int manhattan(long board) {
+        int h = 0;
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            int tile = tile(board, cell);
+            if (tile != 0) {
+                h += distance(tile, cell);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Calculates the linear conflict of a board, two moves for every tile that has to leave
+     * its goal row or column to let the other tiles in that line pass
+     * @param board, the packed board
+     * @return the linear conflict
+     */
+    public int linearConflict(long board) {
+        int h = 0;
+        for (int i = 0; i < SIZE; i++) {
+            h += rowConflict(board, i) + colConflict(board, i);
+        }
+        return h;
+    }
+
+    /**
+     * Calculates how much the heuristic changes when a tile slides into the 0, only the
+     * tile's distance and the conflicts of the lines it leaves and enters can change
+     * @param board, the packed board after the move
+     * @param from, the cell the tile is on after the move, where the 0 was
+     * @param to, the cell the tile was on before the move, where the 0 is now
+     * @return the heuristic of the board minus the heuristic of the board before the move
+     */
+    public int delta(long board, int from, int to) {
+        int tile = tile(board, from);
+        long before = (board & ~(0xFL << (from << 2))) | ((long) tile << (to << 2));
+        int h = distance(tile, from) - distance(tile, to);
+        if (from / SIZE == to / SIZE) {
+            //a sideways move changes the tile's column
+            int a = from % SIZE;
+            int b = to % SIZE;
+            h += colConflict(board, a) + colConflict(board, b) - colConflict(before, a) - colConflict(before, b);
+        } else {
+            int a = from / SIZE;
+            int b = to / SIZE;
+            h += rowConflict(board, a) + rowConflict(board, b) - rowConflict(before, a) - rowConflict(before, b);
+        }
+        return h;
+    }
+
+    int distance(int tile, int cell) {
+        return PuzzleState.calcManhattanDistance(cell / SIZE, cell % SIZE, goalRow[tile], goalCol[tile]);
+    }
+
+    /**
+     * Calculates the conflict of a row, tiles in their goal row have to keep their goal order
+     * so every tile outside the longest ordered subsequence must step out and back in
+     */
+    int rowConflict(long board, int row) {
+        long runs = 0;
+        int count = 0;
+        for (int j = 0; j < SIZE; j++) {
+            int tile = tile(board, row * SIZE + j);
+            if (tile != 0 && goalRow[tile] == row) {
+                runs = extendRuns(runs, goalCol[tile]);
+                count++;
+            }
+        }
+        return 2 * (count - Long.bitCount(runs));
+    }
+
+    /**
+     * Calculates the conflict of a column, see rowConflict
+     */
+    int colConflict(long board, int col) {
+        long runs = 0;
+        int count = 0;
+        for (int i = 0; i < SIZE; i++) {
+            int tile = tile(board, i * SIZE + col);
+            if (tile != 0 && goalCol[tile] == col) {
+                runs = extendRuns(runs, goalRow[tile]);
+                count++;
+            }
+        }
+        return 2 * (count - Long.bitCount(runs));
+    }
+
+    /**
+     * Adds a value to a patience sort of distinct values below 64, the bits set are the smallest last
+     * value of an increasing run of each length, so their count is the length of the longest one
+     * @param tails, the runs so far
+     * @param value, the next value
+     * @return the runs with the value added
+     */
+    static long extendRuns(long tails, int value) {
+        long higher = tails & (-1L << value);
+        return (tails & ~Long.lowestOneBit(higher)) | (1L << value);
+    }
+
+    private static int tile(long board, int cell) {
+        return (int) ((board >>> (cell << 2)) & 0xF);
+    }
+}
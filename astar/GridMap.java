@@ -0,0 +1,209 @@
+/*
+ * A 2D grid of passable and blocked cells, kept as one bit per cell
+ * Cells can be opened or blocked after loading, the version counts the changes so tables built from a map can tell they are stale
+ * Maps are read in the MovingAI .map format, the file is mapped into memory and parsed byte by byte
+ * 10/17/26
+ */
+package astar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * @author Joseph
+ */
+public class GridMap {
+
+    private final int width;
+    private final int height;
+    /* Bit y * width + x is set when the cell at (x, y) is passable */
+    private final long[] passable;
+    /* Incremented each time a cell is opened or blocked */
+    private int version = 0;
+
+    private GridMap(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("A map needs a positive size, got " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.passable = new long[(int) (((long) width * height + 63) >>> 6)];
+    }
+
+    /**
+     * Builds a map from rows of MovingAI terrain characters, see isPassableTerrain
+     * @param rows, the rows from top to bottom, all of the same length
+     */
+    public GridMap(String... rows) {
+        this(rows.length == 0 ? 0 : rows[0].length(), rows.length);
+        for (int y = 0; y < height; y++) {
+            if (rows[y].length() != width) {
+                throw new IllegalArgumentException("Row " + y + " has " + rows[y].length() + " cells, expected " + width);
+            }
+            for (int x = 0; x < width; x++) {
+                if (isPassableTerrain(rows[y].charAt(x))) {
+                    set(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a MovingAI .map file into memory and reads it
+     * @param path, the file to load
+     * @return the map
+     * @throws IOException if the file cannot be read or is not a .map file
+     */
+    public static GridMap load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return read(buffer, path.toString());
+    }
+
+    /**
+     * Reads a .map file, a header of "type", "height", "width" lines, then a line "map" and one line per row
+     */
+    private static GridMap read(ByteBuffer buffer, String name) throws IOException {
+        int width = -1;
+        int height = -1;
+        String line;
+        while (!"map".equals(line = readLine(buffer))) {
+            if (line == null) {
+                throw new IOException(name + " has no map section");
+            }
+            String[] parts = line.trim().split("\\s+");
+            try {
+                if (parts[0].equals("height")) {
+                    height = Integer.parseInt(parts[1]);
+                } else if (parts[0].equals("width")) {
+                    width = Integer.parseInt(parts[1]);
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException(name + " has a malformed header line: " + line, e);
+            }
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IOException(name + " has no width or height");
+        }
+        GridMap map = new GridMap(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (!buffer.hasRemaining()) {
+                    throw new IOException(name + " ends at row " + y + " of " + height);
+                }
+                byte terrain = buffer.get();
+                if (terrain == '\n' || terrain == '\r') {
+                    throw new IOException(name + " has a short row " + y);
+                }
+                if (isPassableTerrain((char) terrain)) {
+                    map.set(x, y);
+                }
+            }
+            //skip the line ending
+            while (buffer.hasRemaining() && (buffer.get(buffer.position()) == '\r' || buffer.get(buffer.position()) == '\n')) {
+                buffer.get();
+            }
+        }
+        return map;
+    }
+
+    /**
+     * @return the next line without its ending, or null at the end of the buffer
+     */
+    private static String readLine(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Checks whether a MovingAI terrain character can be walked on, ground '.' and 'G' and swamp 'S' can,
+     * out of bounds '@' and 'O', trees 'T' and water 'W' cannot
+     * @param terrain, the character
+     * @return true or false
+     */
+    public static boolean isPassableTerrain(char terrain) {
+        return terrain == '.' || terrain == 'G' || terrain == 'S';
+    }
+
+    private void set(int x, int y) {
+        int index = y * width + x;
+        passable[index >>> 6] |= 1L << index;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x, the column
+     * @param y, the row
+     * @return true if the cell is on the map and passable
+     */
+    public boolean isPassable(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        int index = y * width + x;
+        return (passable[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Opens or blocks a cell, a map must not be changed while it is being searched
+     * @param x, the column
+     * @param y, the row
+     * @param open, true to make the cell passable, false to block it
+     */
+    public void setPassable(int x, int y, boolean open) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is not on the " + width + "x" + height + " map");
+        }
+        if (isPassable(x, y) == open) {
+            return;
+        }
+        int index = y * width + x;
+        passable[index >>> 6] ^= 1L << index;
+        version++;
+    }
+
+    /**
+     * @return the number of times a cell was opened or blocked since the map was built
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the number of passable cells
+     */
+    public int passableCount() {
+        int count = 0;
+        for (long word : passable) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Inherits the AStarSolver class to find shortest paths between cells of a GridMap
+ * Moves are 4 or 8 connected, a diagonal move may not cut the corner of a blocked cell.
+ * Jump point search only queues the cells where an optimal path may have to turn, found by scanning
+ * straight and diagonal lines from each expanded cell. The straight scans are read from a table built
+ * once per map, so a diagonal scan checks its two straight lines in constant time per step.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+
+/**
+ *
+ * @author Joseph
+ */
+public class GridSolver extends AStarSolver<GridState> {
+
+    /* Costs are integers, a diagonal move costs sqrt(2) times a straight one to 3 digits */
+    public static final int STRAIGHT_COST = 1000;
+    public static final int DIAGONAL_COST = 1414;
+    /* The steps of each move, the 4 straight ones first */
+    private static final int[] DX = {0, 0, -1, 1, -1, 1, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0, -1, -1, 1, 1};
+
+    private final GridMap map;
+    private final boolean diagonal;
+    /*
+     *    For each straight move and passable cell, the number of steps to the first jump point on that line,
+     *    or minus the number of passable cells before the line is blocked if there is none. Built on first use,
+     *    and again once the map has changed since the version it was built from.
+     */
+    private volatile int[][] jumps;
+    private volatile int jumpsVersion;
+
+    /**
+     * @param map, the map to search
+     * @param diagonal, true for 8 connected moves with the octile distance, false for 4 connected moves
+     *        with the manhattan distance
+     */
+    public GridSolver(GridMap map, boolean diagonal) {
+        this.map = map;
+        this.diagonal = diagonal;
+    }
+
+    public GridMap getMap() {
+        return map;
+    }
+
+    /**
+     * Returns whether two states are equal
+     * @param current, the current state
+     * @param goal, the goal state to be compared to
+     * @return true or false
+     */
+    @Override
+    public boolean isEqualTo(GridState current, GridState goal) {
+        return current.isEqualTo(goal);
+    }
+
+    /**
+     * Calculates the next possible states based off the current node and closed nodes
+     * @param pathCost, the pathCost of the current state
+     * @param current, the current state
+     * @param closedNodes, keys of the nodes already expanded
+     * @param goalNode, the goal node
+     * @return a list of states
+     */
+    @Override
+    public ArrayList<GridState> calculateStates(int pathCost, GridState current, LongHashSet closedNodes, GridState goalNode) {
+        ArrayList<GridState> list = new ArrayList<>();
+        expand(current, goalNode, Successors.into(closedNodes, list));
+        return list;
+    }
+
+    /**
+     * Pushes the neighbouring cells that can be moved to
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param successors, receives the successors
+     */
+    @Override
+    protected void expand(GridState current, GridState goal, Successors<GridState> successors) {
+        int moves = diagonal ? DX.length : 4;
+        for (int move = 0; move < moves; move++) {
+            if (canStep(current.getX(), current.getY(), DX[move], DY[move])) {
+                push(current, current.getX() + DX[move], current.getY() + DY[move], DX[move], DY[move],
+                        move < 4 ? STRAIGHT_COST : DIAGONAL_COST, goal, successors);
+            }
+        }
+    }
+
+    @Override
+    protected int estimate(GridState state, GridState goal) {
+        return distance(state.getX(), state.getY(), goal.getX(), goal.getY());
+    }
+
+    @Override
+    protected void initialize(GridState initial, GridState goal) {
+        initial.g = 0;
+        initial.f = estimate(initial, goal);
+    }
+
+    /**
+     * Finds the shortest path to goal with jump point search, the path holds every cell and
+     * costs the same as the one AStar finds
+     * @param initial, the initial cell
+     * @param goal, the goal cell
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     * @throws IllegalStateException if the solver was made without diagonal moves
+     */
+    public ArrayList<GridState> jumpPointSearch(GridState initial, GridState goal) {
+        if (!diagonal) {
+            throw new IllegalStateException("Jump point search needs a solver with diagonal moves");
+        }
+        Jumping jumping = new Jumping(jumpTable());
+        jumping.setSearchListener(getSearchListener());
+        ArrayList<GridState> jumpPoints = jumping.AStar(initial, goal);
+        return jumpPoints == null ? null : fill(jumpPoints, goal);
+    }
+
+    /*
+     *    Searches between jump points, a cell is entered from the direction of the scan that found it
+     *    and only the directions an optimal path through it could continue in are scanned
+     */
+    private class Jumping extends AStarSolver<GridState> {
+
+        private final int[][] jumps;
+
+        private Jumping(int[][] jumps) {
+            this.jumps = jumps;
+        }
+
+        @Override
+        public boolean isEqualTo(GridState current, GridState goal) {
+            return current.isEqualTo(goal);
+        }
+
+        @Override
+        public ArrayList<GridState> calculateStates(int pathCost, GridState current, LongHashSet closedNodes, GridState goalNode) {
+            ArrayList<GridState> list = new ArrayList<>();
+            expand(current, goalNode, Successors.into(closedNodes, list));
+            return list;
+        }
+
+        @Override
+        protected void expand(GridState current, GridState goal, Successors<GridState> successors) {
+            int x = current.getX();
+            int y = current.getY();
+            int dx = current.getDx();
+            int dy = current.getDy();
+            if (dx == 0 && dy == 0) {
+                for (int move = 0; move < DX.length; move++) {
+                    scan(current, DX[move], DY[move], goal, successors);
+                }
+            } else if (dx != 0 && dy != 0) {
+                boolean across = map.isPassable(x + dx, y);
+                boolean along = map.isPassable(x, y + dy);
+                if (along) {
+                    scan(current, 0, dy, goal, successors);
+                }
+                if (across) {
+                    scan(current, dx, 0, goal, successors);
+                }
+                if (across && along) {
+                    scan(current, dx, dy, goal, successors);
+                }
+            } else if (dx != 0) {
+                boolean below = map.isPassable(x, y + 1);
+                boolean above = map.isPassable(x, y - 1);
+                if (map.isPassable(x + dx, y)) {
+                    scan(current, dx, 0, goal, successors);
+                    if (below) {
+                        scan(current, dx, 1, goal, successors);
+                    }
+                    if (above) {
+                        scan(current, dx, -1, goal, successors);
+                    }
+                }
+                if (below) {
+                    scan(current, 0, 1, goal, successors);
+                }
+                if (above) {
+                    scan(current, 0, -1, goal, successors);
+                }
+            } else {
+                boolean right = map.isPassable(x + 1, y);
+                boolean left = map.isPassable(x - 1, y);
+                if (map.isPassable(x, y + dy)) {
+                    scan(current, 0, dy, goal, successors);
+                    if (right) {
+                        scan(current, 1, dy, goal, successors);
+                    }
+                    if (left) {
+                        scan(current, -1, dy, goal, successors);
+                    }
+                }
+                if (right) {
+                    scan(current, 1, 0, goal, successors);
+                }
+                if (left) {
+                    scan(current, -1, 0, goal, successors);
+                }
+            }
+        }
+
+        @Override
+        protected int estimate(GridState state, GridState goal) {
+            return GridSolver.this.estimate(state, goal);
+        }
+
+        @Override
+        protected void initialize(GridState initial, GridState goal) {
+            GridSolver.this.initialize(initial, goal);
+        }
+
+        /**
+         * Scans a line from a cell and pushes the jump point found on it
+         */
+        private void scan(GridState current, int dx, int dy, GridState goal, Successors<GridState> successors) {
+            int x = current.getX();
+            int y = current.getY();
+            int steps;
+            if (dx != 0 && dy != 0) {
+                steps = jumpDiagonal(x, y, dx, dy, goal);
+            } else {
+                steps = jumpStraight(x, y, dx, dy, goal);
+            }
+            if (steps > 0) {
+                push(current, x + dx * steps, y + dy * steps, dx, dy,
+                        steps * (dx != 0 && dy != 0 ? DIAGONAL_COST : STRAIGHT_COST), goal, successors);
+            }
+        }
+
+        /**
+         * @return the steps to the first jump point or the goal on a straight line, or -1 if there is none
+         */
+        private int jumpStraight(int x, int y, int dx, int dy, GridState goal) {
+            int table = straightMove(dx, dy);
+            int steps = jumps[table][y * map.getWidth() + x];
+            int reach = Math.abs(steps);
+            int toGoal = -1;
+            if (dy == 0 && goal.getY() == y) {
+                toGoal = (goal.getX() - x) * dx;
+            } else if (dx == 0 && goal.getX() == x) {
+                toGoal = (goal.getY() - y) * dy;
+            }
+            if (toGoal > 0 && toGoal <= reach) {
+                return toGoal;
+            }
+            return steps > 0 ? steps : -1;
+        }
+
+        /**
+         * @return the steps to the first cell on a diagonal line that is the goal or has a jump point on one
+         *         of its straight lines, or -1 if the line is blocked first
+         */
+        private int jumpDiagonal(int x, int y, int dx, int dy, GridState goal) {
+            int steps = 0;
+            while (canStep(x, y, dx, dy)) {
+                x += dx;
+                y += dy;
+                steps++;
+                if ((x == goal.getX() && y == goal.getY()) || jumpStraight(x, y, dx, 0, goal) > 0
+                        || jumpStraight(x, y, 0, dy, goal) > 0) {
+                    return steps;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Pushes a successor unless its cell was already expanded
+     */
+    private void push(GridState current, int x, int y, int dx, int dy, int cost, GridState goal,
+            Successors<GridState> successors) {
+        GridState child = new GridState(x, y, dx, dy);
+        if (successors.isClosed(child.key())) {
+            return;
+        }
+        child.g = current.g + cost;
+        long started = successors.heuristicStarted();
+        child.f = child.g + estimate(child, goal);
+        successors.heuristicFinished(started);
+        successors.add(child);
+    }
+
+    /**
+     * Checks whether a move from a cell stays on passable cells, a diagonal move needs both cells it passes
+     */
+    private boolean canStep(int x, int y, int dx, int dy) {
+        return map.isPassable(x + dx, y + dy)
+                && (dx == 0 || dy == 0 || (map.isPassable(x + dx, y) && map.isPassable(x, y + dy)));
+    }
+
+    /**
+     * The octile distance with diagonal moves, the manhattan distance without
+     */
+    private int distance(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x1 - x2);
+        int dy = Math.abs(y1 - y2);
+        if (!diagonal) {
+            return (dx + dy) * STRAIGHT_COST;
+        }
+        return Math.max(dx, dy) * STRAIGHT_COST + Math.min(dx, dy) * (DIAGONAL_COST - STRAIGHT_COST);
+    }
+
+    /**
+     * Adds the cells a path of jump points passes between them, each pair is on one straight or diagonal line
+     */
+    private ArrayList<GridState> fill(ArrayList<GridState> jumpPoints, GridState goal) {
+        ArrayList<GridState> path = new ArrayList<>();
+        GridState previous = jumpPoints.get(0);
+        path.add(previous);
+        for (int i = 1; i < jumpPoints.size(); i++) {
+            GridState next = jumpPoints.get(i);
+            int dx = Integer.signum(next.getX() - previous.getX());
+            int dy = Integer.signum(next.getY() - previous.getY());
+            int cost = dx != 0 && dy != 0 ? DIAGONAL_COST : STRAIGHT_COST;
+            int x = previous.getX();
+            int y = previous.getY();
+            int g = previous.g;
+            while (x != next.getX() || y != next.getY()) {
+                x += dx;
+                y += dy;
+                g += cost;
+                GridState step = new GridState(x, y, dx, dy);
+                step.g = g;
+                step.f = g + estimate(step, goal);
+                path.add(step);
+            }
+            previous = next;
+        }
+        return path;
+    }
+
+    /**
+     * Gets the straight jump table, building it on first use or after the map changed
+     */
+    private int[][] jumpTable() {
+        int[][] table = jumps;
+        if (table == null || jumpsVersion != map.getVersion()) {
+            synchronized (this) {
+                table = jumps;
+                int version = map.getVersion();
+                if (table == null || jumpsVersion != version) {
+                    table = buildJumpTable();
+                    jumpsVersion = version;
+                    jumps = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private int[][] buildJumpTable() {
+        int width = map.getWidth();
+        int height = map.getHeight();
+        int[][] table = new int[4][width * height];
+        for (int move = 0; move < 4; move++) {
+            int dx = DX[move];
+            int dy = DY[move];
+            int[] steps = table[move];
+            //visit cells against the direction of the move so the cell ahead is done first
+            for (int i = 0; i < height; i++) {
+                int y = dy > 0 ? height - 1 - i : i;
+                for (int j = 0; j < width; j++) {
+                    int x = dx > 0 ? width - 1 - j : j;
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    if (!map.isPassable(x, y) || !map.isPassable(nx, ny)) {
+                        continue;
+                    }
+                    if (forced(nx, ny, dx, dy)) {
+                        steps[y * width + x] = 1;
+                    } else {
+                        int ahead = steps[ny * width + nx];
+                        steps[y * width + x] = ahead > 0 ? ahead + 1 : ahead - 1;
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Checks whether a cell entered by a straight move has a neighbour beside it that an optimal path
+     * can only reach through it, because the cell beside the one it was entered from is blocked
+     */
+    private boolean forced(int x, int y, int dx, int dy) {
+        if (dx != 0) {
+            return (map.isPassable(x, y - 1) && !map.isPassable(x - dx, y - 1))
+                    || (map.isPassable(x, y + 1) && !map.isPassable(x - dx, y + 1));
+        }
+        return (map.isPassable(x - 1, y) && !map.isPassable(x - 1, y - dy))
+                || (map.isPassable(x + 1, y) && !map.isPassable(x + 1, y - dy));
+    }
+
+    /**
+     * @return the index of a straight move in DX and DY
+     */
+    private static int straightMove(int dx, int dy) {
+        if (dy != 0) {
+            return dy < 0 ? 0 : 1;
+        }
+        return dx < 0 ? 2 : 3;
+    }
+}
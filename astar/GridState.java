@@ -0,0 +1,83 @@
+/*
+ * A cell of a GridMap as a search state, with the direction it was entered from
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public class GridState extends AStarSolver.AIState {
+
+    private final int x;
+    private final int y;
+    /* The step taken to enter the cell, each -1, 0 or 1, both 0 for the start */
+    private final int dx;
+    private final int dy;
+
+    /**
+     * @param x, the column
+     * @param y, the row
+     */
+    public GridState(int x, int y) {
+        this(x, y, 0, 0);
+    }
+
+    /**
+     * @param x, the column
+     * @param y, the row
+     * @param dx, the column step taken to enter the cell
+     * @param dy, the row step taken to enter the cell
+     */
+    GridState(int x, int y, int dx, int dy) {
+        this.x = x;
+        this.y = y;
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    /**
+     * Two states are equal if they are on the same cell, whatever direction they were entered from
+     * @return the key of the state
+     */
+    @Override
+    public long key() {
+        return ((long) y << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    public boolean isEqualTo(GridState other) {
+        return x == other.x && y == other.y;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof GridState && isEqualTo((GridState) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key());
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * An open list backed by a binary heap, works with any f values
+ * 10/17/26
+ */
+package astar;
+
+import java.util.PriorityQueue;
+
+/**
+ *
+ * @author Joseph
+ * @param <E>, the type of element held by the list
+ */
+public class HeapOpenList<E> implements OpenList<E> {
+
+    private final PriorityQueue<Entry<E>> heap = new PriorityQueue<>();
+
+    private static class Entry<E> implements Comparable<Entry<E>> {
+
+        private final E element;
+        private final int f;
+        private final int g;
+
+        private Entry(E element, int f, int g) {
+            this.element = element;
+            this.f = f;
+            this.g = g;
+        }
+
+        /**
+         * Orders by lowest f, then by highest g
+         * @param o, the entry to compare to
+         * @return -1 if this is less, 1 if this is more, 0 if equal
+         */
+        @Override
+        public int compareTo(Entry<E> o) {
+            if (f != o.f) {
+                return f < o.f ? -1 : 1;
+            }
+            return Integer.compare(o.g, g);
+        }
+    }
+
+    @Override
+    public void add(E element, int f, int g) {
+        heap.add(new Entry<>(element, f, g));
+    }
+
+    @Override
+    public E poll() {
+        Entry<E> entry = heap.poll();
+        return entry == null ? null : entry.element;
+    }
+
+    @Override
+    public int peekF() {
+        Entry<E> entry = heap.peek();
+        return entry == null ? Integer.MAX_VALUE : entry.f;
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * A solver for problems whose states can be moved in place and undone, and rebuilt from their keys
+ * The searches that keep little or no state in memory need these hooks, IDAStar keeps one state and its moves,
+ * compactAStar, frontierAStar and externalAStar keep keys and restore a state from each as it is expanded.
+ * They are only offered by this class, so a solver without the hooks cannot call them.
+ * 10/17/26
+ */
+package astar;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public abstract class InPlaceSolver<T extends AStarSolver.AIState> extends AStarSolver<T> {
+
+    /*
+     *    Depth first search used by IDAStar, the state is moved in place and the
+     *    moves taken are kept on a stack so memory is linear in the depth
+     */
+    private class DepthFirst {
+
+        private static final int FOUND = -1;
+        private static final int INTERRUPTED = -2;
+
+        private final T state;
+        private final T goal;
+        private final SearchStats stats;
+        private final boolean timed = getSearchListener() != null;
+        private int[] moves = new int[64];
+        private int depth = 0;
+        private int expanded = 0;
+
+        /**
+         * @param state, the state to search from, moved in place during the search
+         * @param goal, the goal to search for
+         * @param stats, the statistics to count into
+         */
+        private DepthFirst(T state, T goal, SearchStats stats) {
+            this.state = state;
+            this.goal = goal;
+            this.stats = stats;
+        }
+
+        /**
+         * Searches every path whose f does not exceed the bound
+         * @param g, the path cost of the state
+         * @param h, the heuristic value of the state
+         * @param bound, the largest f to expand
+         * @param previous, the move that reached the state, or -1 for the root
+         * @return FOUND if the goal was reached, INTERRUPTED if the thread was interrupted,
+         *         otherwise the smallest f above the bound
+         */
+        private int search(int g, int h, int bound, int previous) {
+            int f = g + h;
+            if (f > bound) {
+                return f;
+            }
+            if (interrupted(++expanded)) {
+                return INTERRUPTED;
+            }
+            stats.expanded++;
+            if (isEqualTo(state, goal)) {
+                return FOUND;
+            }
+            int min = Integer.MAX_VALUE;
+            int count = moveCount();
+            for (int move = 0; move < count; move++) {
+                //never undo the move that was just made
+                if (previous >= 0 && move == inverseMove(previous)) {
+                    continue;
+                }
+                int cost = applyMove(state, move);
+                if (cost < 0) {
+                    continue;
+                }
+                push(move);
+                stats.generated++;
+                int t = search(g + cost, childEstimate(move, h), bound, move);
+                if (t == FOUND || t == INTERRUPTED) {
+                    return t;
+                }
+                depth--;
+                undoMove(state, move);
+                if (t < min) {
+                    min = t;
+                }
+            }
+            return min;
+        }
+
+        private int childEstimate(int move, int h) {
+            if (!timed) {
+                return estimateAfterMove(state, move, h, goal);
+            }
+            long start = System.nanoTime();
+            int estimate = estimateAfterMove(state, move, h, goal);
+            //the heuristic is all of the expansion that is timed, the moves are made in place
+            long nanos = System.nanoTime() - start;
+            stats.expansionNanos += nanos;
+            stats.heuristicNanos += nanos;
+            return estimate;
+        }
+
+        private void push(int move) {
+            if (depth == moves.length) {
+                moves = Arrays.copyOf(moves, depth << 1);
+            }
+            moves[depth++] = move;
+            stats.openSize(depth);
+        }
+
+        /**
+         * Replays the moves on the stack to list each state on the path
+         * @param initial, the state the search started from
+         * @return the path
+         */
+        private ArrayList<T> reconstructPath(T initial) {
+            return replay(initial, goal, moves, depth);
+        }
+    }
+    
+    /**
+     * Replays moves from the initial state to list each state on a path
+     * @param initial, the state the path starts from
+     * @param goal, the goal, used for the heuristic values
+     * @param moves, the move codes
+     * @param count, the number of moves to replay
+     * @return the path
+     */
+    ArrayList<T> replay(T initial, T goal, int[] moves, int count) {
+        ArrayList<T> list = new ArrayList<>(count + 1);
+        T current = copyState(initial, -1);
+        current.g = 0;
+        current.f = estimate(current, goal);
+        list.add(copyState(current, -1));
+        for (int i = 0; i < count; i++) {
+            int cost = applyMove(current, moves[i]);
+            current.g += cost;
+            current.f = current.g + estimate(current, goal);
+            list.add(copyState(current, moves[i]));
+        }
+        return list;
+    }
+    
+    /** 
+     * Finds the shortest path to goal with iterative deepening A*, repeating depth first
+     * searches with a growing bound on f. Only the current path is kept in memory, so
+     * subclasses must implement the in place move hooks used below to call it.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * Duplicates are not detected, so on a pair with no solution it never returns unless interrupted, callers
+     * must check the pair can be solved first, as PuzzleSolver.IDAStar and SlidingSolver.solve do.
+     * @return the shortest path, or null if every path was cut off by a dead end or the thread was interrupted
+     */
+    public ArrayList<T> IDAStar(T initial, T goal) {
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("IDAStar");
+        T start = copyState(initial, -1);
+        start.g = 0;
+        DepthFirst search = new DepthFirst(start, goal, stats);
+        int h = estimate(start, goal);
+        int bound = h;
+        while (true) {
+            int t = search.search(0, h, bound, -1);
+            if (t == DepthFirst.FOUND) {
+                return finish(stats, startTime, search.reconstructPath(initial));
+            }
+            if (t == Integer.MAX_VALUE || t == DepthFirst.INTERRUPTED) {
+                return finish(stats, startTime, null);
+            }
+            bound = t;
+        }
+    }
+
+    /** 
+     * Finds the shortest path to goal like AStar but keeps its nodes in a NodeArena, a node is a state key,
+     * two costs, a parent index and a move code instead of a state object. One state is restored from
+     * each key as it is expanded and moved in place, states are only built for the final path.
+     * Requires keys that hold the whole state.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> compactAStar(T initial, T goal) {
+        int[] moves = compactAStarMoves(initial, goal);
+        return moves == null ? null : replay(initial, goal, moves, moves.length);
+    }
+    
+    /** 
+     * Finds the shortest path to goal like compactAStar but returns only its moves, no state is built
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the move codes of the shortest path, or null if there is none or the thread was interrupted
+     */
+    public int[] compactAStarMoves(T initial, T goal) {
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("compactAStar");
+        boolean timed = getSearchListener() != null;
+        T state = copyState(initial, -1);
+        NodeArena arena = new NodeArena();
+        LongHashSet closedSet = new LongHashSet();
+        arena.push(arena.add(state.key(), 0, estimate(state, goal), -1, -1));
+        int expanded = 0;
+        while (!arena.isOpenEmpty()) {
+            int current = arena.poll();
+            long key = arena.state(current);
+            //a state may be queued more than once, only expand its first occurrence
+            if (!closedSet.add(key)) {
+                stats.duplicatesPruned++;
+                continue;
+            }
+            if (interrupted(++expanded)) {
+                finish(stats, startTime, -1);
+                return null;
+            }
+            stats.expanded++;
+            stats.closedSize(closedSet.size());
+            restoreState(state, key);
+            if (isEqualTo(state, goal)) {
+                finish(stats, startTime, arena.g(current));
+                return arena.path(current);
+            }
+            int g = arena.g(current);
+            int h = arena.f(current) - g;
+            int previous = arena.move(current);
+            long start = timed ? System.nanoTime() : 0;
+            int count = moveCount();
+            for (int move = 0; move < count; move++) {
+                //never undo the move that was just made
+                if (previous >= 0 && move == inverseMove(previous)) {
+                    continue;
+                }
+                int cost = applyMove(state, move);
+                if (cost < 0) {
+                    continue;
+                }
+                long child = state.key();
+                if (!closedSet.contains(child)) {
+                    int childG = g + cost;
+                    int childH = estimateAfterMove(state, move, h, goal, timed ? stats : null);
+                    arena.push(arena.add(child, childG, childG + childH, current, move));
+                    stats.generated++;
+                }
+                undoMove(state, move);
+            }
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.openSize(arena.openSize());
+        }
+        finish(stats, startTime, -1);
+        return null;
+    }
+    
+    /** 
+     * Finds the shortest path to goal with external memory A*, see ExternalAStar. Open and closed nodes
+     * are kept in files so the search is bounded by disk space rather than the heap. Requires keys that
+     * hold the whole state and moves costing at least 1.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @param directory, where the node files are kept while searching
+     * @param memoryBytes, the memory used to sort nodes in
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     * @throws IOException if a node file cannot be read or written
+     */
+    public ArrayList<T> externalAStar(T initial, T goal, Path directory, long memoryBytes) throws IOException {
+        return new ExternalAStar<>(this, directory, memoryBytes).solve(initial, goal);
+    }
+    
+    /** 
+     * Finds the shortest path to goal with frontier A*, see FrontierAStar. Expanded nodes are dropped and the
+     * path is recovered by solving its halves again, so memory holds only the open list. Requires an inverse
+     * for every move, keys that hold the whole state and a consistent heuristic.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<T> frontierAStar(T initial, T goal) {
+        return new FrontierAStar<>(this).solve(initial, goal);
+    }
+
+    /**
+     * Sets a state in place to the one a key was made from, used by compactAStar, frontierAStar and externalAStar
+     * @param state, the state to change
+     * @param key, the key of the state to restore
+     */
+    protected abstract void restoreState(T state, long key);
+    
+    /**
+     * Returns the number of move codes, moves are numbered from 0, used by IDAStar and compactAStar
+     * @return the number of moves
+     */
+    protected abstract int moveCount();
+    
+    /**
+     * Applies a move to a state in place, used by IDAStar
+     * @param state, the state to change
+     * @param move, the move code
+     * @return the cost of the move, or -1 if it cannot be made in which case the state is unchanged
+     */
+    protected abstract int applyMove(T state, int move);
+    
+    /**
+     * Reverts a move applied by applyMove, used by IDAStar
+     * @param state, the state to change
+     * @param move, the move code that was applied
+     */
+    protected abstract void undoMove(T state, int move);
+    
+    /**
+     * Returns the move that undoes a move, used to avoid walking straight back to the parent
+     * @param move, the move code
+     * @return the inverse move code, or -1 if there is none
+     */
+    protected int inverseMove(int move) {
+        return -1;
+    }
+    
+    /**
+     * Estimates the remaining cost after a state was moved in place, override when the
+     * estimate can be updated from the one before the move instead of recalculated
+     * @param state, the state after the move
+     * @param move, the move code that was applied
+     * @param h, the heuristic value before the move
+     * @param goal, the goal state
+     * @return the heuristic value
+     */
+    protected int estimateAfterMove(T state, int move, int h, T goal) {
+        return estimate(state, goal);
+    }
+
+    /**
+     * Estimates the moves left after a move with estimateAfterMove, timing it
+     * @param state, the state after the move
+     * @param move, the move made
+     * @param h, the heuristic value before the move
+     * @param goal, the goal state
+     * @param timing, the statistics to count heuristic time into, or null to not time it
+     * @return the heuristic value
+     */
+    int estimateAfterMove(T state, int move, int h, T goal, SearchStats timing) {
+        if (timing == null) {
+            return estimateAfterMove(state, move, h, goal);
+        }
+        long start = System.nanoTime();
+        int estimate = estimateAfterMove(state, move, h, goal);
+        timing.heuristicNanos += System.nanoTime() - start;
+        return estimate;
+    }
+    
+    /**
+     * Copies a state so it can be kept after the original is moved in place
+     * @param state, the state to copy
+     * @param move, the move code that reached the state, or -1 if none
+     * @return the copy
+     */
+    protected abstract T copyState(T state, int move);
+}
@@ -0,0 +1,341 @@
+/*
+ * D* Lite, an incremental A* that keeps its search between plans and repairs it when move costs change
+ * It searches backwards from the goal, so the g of a state is its cost to the goal and its rhs is the
+ * cheapest successor's g plus the cost of moving there. A state whose g and rhs differ is queued.
+ * After a change only the states whose rhs changed are queued again, and the search spreads from them
+ * only as far as g values change, so replanning costs about the size of the change rather than the map.
+ * The start may move along the path between plans, the goal stays fixed.
+ * Costs are read from the solver's expand and calculatePredecessors, so a change to the problem must be
+ * reported with costsChanged or stateChanged before the next plan.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class IncrementalAStar<T extends AStarSolver.AIState> {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final AStarSolver<T> solver;
+    private final Vertex<T> goal;
+    private Vertex<T> start;
+    /* The sum of the heuristic from each start to the next, keys queued before a move stay lower bounds */
+    private int km = 0;
+    /* Every state the search has touched */
+    private final LongHashMap<Vertex<T>> vertices = new LongHashMap<>();
+    /* The queue of inconsistent states, a binary heap ordered by key */
+    private Vertex<T>[] heap;
+    private int size = 0;
+    /* Nothing is closed in an incremental search, every successor is generated */
+    private final LongHashSet none = new LongHashSet();
+    /* The statistics of the running plan to count heuristic time into, null between plans or when not timed */
+    private SearchStats timing;
+
+    /*
+     *    A state with its cost to the goal, its lookahead and its place in the queue
+     */
+    private static class Vertex<T> {
+
+        private final T state;
+        private int g = INFINITY;
+        private int rhs = INFINITY;
+        /* The key it is queued with, compared first by k1 then by k2 */
+        private int k1;
+        private int k2;
+        /* Its position in the heap, or -1 if it is not queued */
+        private int index = -1;
+
+        private Vertex(T state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * @param solver, provides the moves, their costs and the heuristic, which must be consistent and
+     *        estimate the cost between two states in either direction
+     * @param start, the state to plan from
+     * @param goal, the state to plan to
+     */
+    @SuppressWarnings("unchecked")
+    public IncrementalAStar(AStarSolver<T> solver, T start, T goal) {
+        this.solver = solver;
+        this.heap = (Vertex<T>[]) new Vertex<?>[64];
+        this.goal = vertex(goal);
+        this.start = vertex(start);
+        this.goal.rhs = 0;
+        update(this.goal);
+    }
+
+    /**
+     * Finds the shortest path from the start to the goal, repairing the search left by the last plan
+     * @return the shortest path, or null if there is none or the thread was interrupted, in which case
+     *         the next plan carries on where this one stopped
+     */
+    public ArrayList<T> plan() {
+        long startTime = System.nanoTime();
+        SearchStats stats = new SearchStats("incrementalAStar");
+        boolean timed = solver.getSearchListener() != null;
+        timing = timed ? stats : null;
+        int expanded = 0;
+        while (size > 0) {
+            int k2 = Math.min(start.g, start.rhs);
+            int k1 = k2 == INFINITY ? INFINITY : k2 + estimate(start.state, start.state) + km;
+            Vertex<T> u = heap[0];
+            if (!less(u.k1, u.k2, k1, k2) && start.g == start.rhs) {
+                break;
+            }
+            if (AStarSolver.interrupted(++expanded)) {
+                return finish(stats, startTime, null);
+            }
+            long begin = timed ? System.nanoTime() : 0;
+            int old1 = u.k1;
+            int old2 = u.k2;
+            setKey(u);
+            if (less(old1, old2, u.k1, u.k2)) {
+                //the start moved since it was queued, queue it again with its current key
+                siftDown(u.index);
+                continue;
+            }
+            remove(u);
+            stats.expanded++;
+            ArrayList<T> predecessors = solver.calculatePredecessors(u.state.g, u.state, none, start.state);
+            stats.generated += predecessors.size();
+            if (u.g > u.rhs) {
+                u.g = u.rhs;
+            } else {
+                u.g = INFINITY;
+                update(u);
+            }
+            for (T predecessor : predecessors) {
+                update(vertex(predecessor));
+            }
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - begin;
+            }
+            stats.openSize(size);
+        }
+        stats.closedSize(vertices.size());
+        if (start.g == INFINITY) {
+            return finish(stats, startTime, null);
+        }
+        return finish(stats, startTime, path());
+    }
+
+    private ArrayList<T> finish(SearchStats stats, long startTime, ArrayList<T> path) {
+        timing = null;
+        return solver.finish(stats, startTime, path);
+    }
+
+    /**
+     * Moves the start to a new state, usually the next state on the last path
+     * @param state, the new start
+     */
+    public void moveStart(T state) {
+        km += solver.estimate(start.state, state);
+        start = vertex(state);
+    }
+
+    /**
+     * Reports that the moves out of a state changed, their costs or whether they can be made
+     * @param state, the state whose moves changed
+     */
+    public void costsChanged(T state) {
+        //a state the search has not touched yet, such as a cell that was blocked, may now lead somewhere
+        update(vertex(state));
+    }
+
+    /**
+     * Reports that a state changed in a way that may change the moves into and out of it and between its
+     * neighbours, such as a grid cell being opened or blocked. The neighbours are those reachable in one move
+     * from the state after the change. The state is added to the search if it was never reached, so a cell
+     * that is opened is searched through.
+     * @param state, the state that changed
+     */
+    public void stateChanged(T state) {
+        costsChanged(state);
+        ArrayList<T> neighbours = successors(state);
+        neighbours.addAll(solver.calculatePredecessors(state.g, state, none, start.state));
+        for (T neighbour : neighbours) {
+            costsChanged(neighbour);
+        }
+    }
+
+    public T getStart() {
+        return start.state;
+    }
+
+    /**
+     * Follows the cheapest successors from the start, the search has made their g exact
+     */
+    private ArrayList<T> path() {
+        ArrayList<T> path = new ArrayList<>();
+        T current = start.state;
+        solver.initialize(current, goal.state);
+        path.add(current);
+        long goalKey = goal.state.key();
+        while (current.key() != goalKey) {
+            if (path.size() > vertices.size()) {
+                throw new IllegalStateException("The path of an incremental search does not reach the goal");
+            }
+            T next = null;
+            long best = INFINITY;
+            for (T child : successors(current)) {
+                Vertex<T> v = vertices.get(child.key());
+                if (v != null && v.g != INFINITY && (long) child.g - current.g + v.g < best) {
+                    best = (long) child.g - current.g + v.g;
+                    next = child;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("The path of an incremental search does not reach the goal");
+            }
+            path.add(next);
+            current = next;
+        }
+        return path;
+    }
+
+    /**
+     * Works out the rhs of a state from its successors and queues it if it is inconsistent
+     */
+    private void update(Vertex<T> v) {
+        if (v != goal) {
+            long rhs = INFINITY;
+            for (T child : successors(v.state)) {
+                //a successor without a vertex has not been reached from the goal yet, so its g is infinite,
+                //it gets a vertex once it is reported changed or found as a predecessor of a state expanded
+                Vertex<T> next = vertices.get(child.key());
+                if (next != null && next.g != INFINITY) {
+                    rhs = Math.min(rhs, (long) child.g - v.state.g + next.g);
+                }
+            }
+            v.rhs = (int) Math.min(rhs, INFINITY);
+        }
+        if (v.g == v.rhs) {
+            if (v.index >= 0) {
+                remove(v);
+            }
+            return;
+        }
+        setKey(v);
+        if (v.index >= 0) {
+            siftUp(v.index);
+            siftDown(v.index);
+        } else {
+            offer(v);
+        }
+    }
+
+    private ArrayList<T> successors(T state) {
+        ArrayList<T> list = new ArrayList<>();
+        solver.expand(state, goal.state, Successors.into(none, list, timing));
+        return list;
+    }
+
+    /**
+     * Gets the vertex of a state, adding it if the search has not touched the state yet
+     */
+    private Vertex<T> vertex(T state) {
+        long key = state.key();
+        Vertex<T> v = vertices.get(key);
+        if (v == null) {
+            v = new Vertex<>(state);
+            vertices.put(key, v);
+        }
+        return v;
+    }
+
+    /**
+     * Sets the key of a state, the lower of its g and rhs, plus the heuristic from the start for the first part
+     */
+    private void setKey(Vertex<T> v) {
+        v.k2 = Math.min(v.g, v.rhs);
+        v.k1 = v.k2 == INFINITY ? INFINITY : v.k2 + estimate(v.state, start.state) + km;
+    }
+
+    /**
+     * Estimates the cost between two states, timed while a plan is running with a listener set
+     */
+    private int estimate(T state, T target) {
+        if (timing == null) {
+            return solver.estimate(state, target);
+        }
+        long begin = System.nanoTime();
+        int h = solver.estimate(state, target);
+        timing.heuristicNanos += System.nanoTime() - begin;
+        return h;
+    }
+
+    private static boolean less(int a1, int a2, int b1, int b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+
+    private static boolean before(Vertex<?> a, Vertex<?> b) {
+        return less(a.k1, a.k2, b.k1, b.k2);
+    }
+
+    private void offer(Vertex<T> v) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        v.index = size;
+        heap[size++] = v;
+        siftUp(v.index);
+    }
+
+    private void remove(Vertex<T> v) {
+        int i = v.index;
+        v.index = -1;
+        Vertex<T> last = heap[--size];
+        heap[size] = null;
+        if (last != v) {
+            heap[i] = last;
+            last.index = i;
+            siftUp(i);
+            siftDown(last.index);
+        }
+    }
+
+    private void siftUp(int i) {
+        Vertex<T> v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(v, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heap[i].index = i;
+            i = parent;
+        }
+        heap[i] = v;
+        v.index = i;
+    }
+
+    private void siftDown(int i) {
+        Vertex<T> v = heap[i];
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], v)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heap[i].index = i;
+            i = child;
+        }
+        heap[i] = v;
+        v.index = i;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * A binary heap that tracks each element by the key of its state, so a state is queued at most once
+ * Reaching a queued state again with a lower path cost moves it up the heap instead of queueing a duplicate
+ * 10/17/26
+ */
+package astar;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ *
+ * @author Joseph
+ * @param <E>, the type of element held by the list
+ */
+public class IndexedOpenList<E> {
+
+    private Entry<E>[] heap;
+    private int size = 0;
+    /* The entry of each queued key */
+    private final LongHashMap<Entry<E>> entries = new LongHashMap<>();
+
+    /*
+     *    A queued element with its position in the heap
+     */
+    private static class Entry<E> {
+
+        private final long key;
+        private E element;
+        private int f;
+        private int g;
+        private int index;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public IndexedOpenList() {
+        heap = (Entry<E>[]) new Entry<?>[64];
+    }
+
+    /**
+     * Queues an element, or replaces the queued element of the same key if the new one has a lower path cost
+     * @param key, the key of the element's state
+     * @param element, the element to queue
+     * @param f, the estimated total cost of the element
+     * @param g, the path cost of the element
+     * @return true if the element was queued, false if its state is queued with a path cost no higher
+     */
+    public boolean offer(long key, E element, int f, int g) {
+        Entry<E> entry = entries.get(key);
+        if (entry != null) {
+            if (entry.g <= g) {
+                return false;
+            }
+            entry.element = element;
+            entry.f = f;
+            entry.g = g;
+            siftUp(entry.index);
+            siftDown(entry.index);
+            return true;
+        }
+        entry = new Entry<>(key);
+        entry.element = element;
+        entry.f = f;
+        entry.g = g;
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        entry.index = size;
+        heap[size++] = entry;
+        entries.put(key, entry);
+        siftUp(entry.index);
+        return true;
+    }
+
+    /**
+     * Removes the element with the lowest f, ties are broken in favour of the highest g
+     * @return the element, or null if the list is empty
+     */
+    public E poll() {
+        if (size == 0) {
+            return null;
+        }
+        Entry<E> top = heap[0];
+        entries.remove(top.key);
+        Entry<E> last = heap[--size];
+        heap[size] = null;
+        if (size > 0) {
+            last.index = 0;
+            heap[0] = last;
+            siftDown(0);
+        }
+        return top.element;
+    }
+
+    /**
+     * Gets the f of the element poll would return
+     * @return the lowest f, or Integer.MAX_VALUE if the list is empty
+     */
+    public int peekF() {
+        return size == 0 ? Integer.MAX_VALUE : heap[0].f;
+    }
+
+    /**
+     * Gets the key of the element poll would return
+     * @return the key
+     * @throws NoSuchElementException if the list is empty
+     */
+    public long peekKey() {
+        return top().key;
+    }
+
+    /**
+     * Gets the g of the element poll would return
+     * @return the path cost
+     * @throws NoSuchElementException if the list is empty
+     */
+    public int peekG() {
+        return top().g;
+    }
+
+    private Entry<E> top() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * Gets the element queued for a state
+     * @param key, the key of the state
+     * @return the element, or null if the state is not queued
+     */
+    public E get(long key) {
+        Entry<E> entry = entries.get(key);
+        return entry == null ? null : entry.element;
+    }
+
+    public boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private boolean before(Entry<E> a, Entry<E> b) {
+        return a.f < b.f || (a.f == b.f && a.g > b.g);
+    }
+
+    private void siftUp(int i) {
+        Entry<E> entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(entry, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heap[i].index = i;
+            i = parent;
+        }
+        heap[i] = entry;
+        entry.index = i;
+    }
+
+    private void siftDown(int i) {
+        Entry<E> entry = heap[i];
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], entry)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heap[i].index = i;
+            i = child;
+        }
+        heap[i] = entry;
+        entry.index = i;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Stores the nodes of a search in parallel primitive arrays instead of one object per node
+ * A node is an index holding its state key, path cost, estimated total cost, parent index and the
+ * move that reached it, about 21 bytes, so searches of tens of millions of nodes stay off the heap graph.
+ * The open list is a binary heap of indices ordered like OpenList, by f and then by higher g.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ */
+public class NodeArena {
+
+    private long[] states;
+    private int[] g;
+    private int[] f;
+    private int[] parents;
+    private byte[] moves;
+    private int size = 0;
+
+    /* Indices of the nodes waiting to be expanded */
+    private int[] heap;
+    private int open = 0;
+
+    public NodeArena() {
+        this(1 << 12);
+    }
+
+    /**
+     * @param expected, the number of nodes expected to be stored without growing
+     */
+    public NodeArena(int expected) {
+        int capacity = Math.max(16, expected);
+        states = new long[capacity];
+        g = new int[capacity];
+        f = new int[capacity];
+        parents = new int[capacity];
+        moves = new byte[capacity];
+        heap = new int[capacity];
+    }
+
+    /**
+     * Stores a node
+     * @param state, the key of the state
+     * @param pathCost, the path cost of the node
+     * @param totalCost, the estimated total cost of the node
+     * @param parent, the index of the parent, or -1 for the root
+     * @param move, the move from the parent, or -1 for the root, must fit in a byte
+     * @return the index of the node
+     */
+    public int add(long state, int pathCost, int totalCost, int parent, int move) {
+        if (size == states.length) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("A node arena holds at most " + size + " nodes");
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) size << 1);
+            states = Arrays.copyOf(states, capacity);
+            g = Arrays.copyOf(g, capacity);
+            f = Arrays.copyOf(f, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+        }
+        states[size] = state;
+        g[size] = pathCost;
+        f[size] = totalCost;
+        parents[size] = parent;
+        moves[size] = (byte) move;
+        return size++;
+    }
+
+    public long state(int node) {
+        return states[node];
+    }
+
+    public int g(int node) {
+        return g[node];
+    }
+
+    public int f(int node) {
+        return f[node];
+    }
+
+    /**
+     * @return the index of the parent, or -1 for the root
+     */
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @return the move from the parent, or -1 for the root
+     */
+    public int move(int node) {
+        return moves[node];
+    }
+
+    /**
+     * @return the number of nodes stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lists the moves from the root to a node
+     * @param node, the index of the node
+     * @return the moves in order
+     */
+    public int[] path(int node) {
+        int length = 0;
+        for (int i = node; parents[i] >= 0; i = parents[i]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = node; parents[i] >= 0; i = parents[i]) {
+            path[--length] = moves[i];
+        }
+        return path;
+    }
+
+    /**
+     * Adds a stored node to the open list
+     * @param node, the index of the node
+     */
+    public void push(int node) {
+        if (open == heap.length) {
+            heap = Arrays.copyOf(heap, (int) Math.min(Integer.MAX_VALUE - 8, (long) open << 1));
+        }
+        int i = open++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(node, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = node;
+    }
+
+    /**
+     * Removes the open node with the lowest f, ties are broken in favour of the highest g
+     * @return the index of the node, or -1 if the open list is empty
+     */
+    public int poll() {
+        if (open == 0) {
+            return -1;
+        }
+        int top = heap[0];
+        int last = heap[--open];
+        int i = 0;
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= open) {
+                break;
+            }
+            if (child + 1 < open && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], last)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    public int openSize() {
+        return open;
+    }
+
+    public boolean isOpenEmpty() {
+        return open == 0;
+    }
+
+    private boolean before(int a, int b) {
+        return f[a] < f[b] || (f[a] == f[b] && g[a] > g[b]);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * The strategy AStarSolver uses to order the states waiting to be expanded
+ * Implemented by HeapOpenList and BucketOpenList
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ * @param <E>, the type of element held by the list
+ */
+public interface OpenList<E> {
+
+    /**
+     * Adds an element to the list
+     * @param element, the element to add
+     * @param f, the estimated total cost of the element
+     * @param g, the path cost of the element
+     */
+    void add(E element, int f, int g);
+
+    /**
+     * Removes the element with the lowest f, ties are broken in favour of the highest g
+     * @return the element, or null if the list is empty
+     */
+    E poll();
+
+    /**
+     * Gets the f of the element poll would return
+     * @return the lowest f, or Integer.MAX_VALUE if the list is empty
+     */
+    int peekF();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
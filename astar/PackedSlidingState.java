@@ -0,0 +1,86 @@
+/*
+ * A sliding puzzle board of up to 16 cells packed 4 bits per tile into one long, the long is its key
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public class PackedSlidingState extends SlidingState {
+
+    private static final long TILE_MASK = 0xFL;
+
+    /* The tile on cell c is stored at bits 4 * c */
+    private long board;
+
+    /**
+     * @param rows, the number of rows
+     * @param cols, the number of columns
+     * @param tiles, the tile on each cell, row * cols + col
+     */
+    PackedSlidingState(int rows, int cols, int[] tiles) {
+        super(rows, cols, -1);
+        if (tiles.length > PACKED_CELLS) {
+            throw new IllegalArgumentException("A packed board holds at most " + PACKED_CELLS + " cells");
+        }
+        for (int cell = 0; cell < tiles.length; cell++) {
+            board |= ((long) tiles[cell] & TILE_MASK) << (cell << 2);
+            if (tiles[cell] == 0) {
+                blank = cell;
+            }
+        }
+    }
+
+    private PackedSlidingState(int rows, int cols, int blank, long board) {
+        super(rows, cols, blank);
+        this.board = board;
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * Sets the board in place, finding the 0 on it
+     * @param board, the packed board, such as a key of a state of the same shape
+     */
+    public void setBoard(long board) {
+        this.board = board;
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if (((board >>> (cell << 2)) & TILE_MASK) == 0) {
+                this.blank = cell;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("A board needs a 0");
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        return (int) ((board >>> (cell << 2)) & TILE_MASK);
+    }
+
+    @Override
+    protected void slide(int from) {
+        long tile = (board >>> (from << 2)) & TILE_MASK;
+        board = (board & ~(TILE_MASK << (from << 2))) | (tile << (blank << 2));
+    }
+
+    @Override
+    public SlidingState copy() {
+        return copyInto(new PackedSlidingState(rows, cols, blank, board));
+    }
+
+    @Override
+    public boolean isEqualTo(SlidingState other) {
+        return other instanceof PackedSlidingState && rows == other.rows && cols == other.cols
+                && board == ((PackedSlidingState) other).board;
+    }
+
+    @Override
+    public long key() {
+        return board;
+    }
+}
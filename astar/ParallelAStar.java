@@ -0,0 +1,294 @@
+/*
+ * Hash distributed A* (HDA*), solves a single problem on several threads
+ * Every state is owned by the worker its key hashes to, each worker runs its own open and closed
+ * sets and sends generated states it does not own to their owner through a lock free queue.
+ * The search ends once every worker is idle with no state left below the best solution cost
+ * and no state in flight, so the solution is still optimal.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public class ParallelAStar<T extends AStarSolver.AIState> {
+
+    /* How long an idle worker waits before looking for work again */
+    private static final long IDLE_NANOS = 20_000;
+    /* How many nodes a worker expands between checks of its inbox */
+    private static final int BATCH = 64;
+
+    private final AStarSolver<T> solver;
+    private final int threads;
+
+    /* Counts of states sent and received, equal when no state is in flight */
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    /* The goal node with the cheapest path found so far */
+    private final AtomicReference<Node<T>> incumbent = new AtomicReference<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean done = false;
+    private Worker[] workers;
+    private T goal;
+
+    /*
+     *    A node of the search tree, immutable once it has been sent to another worker
+     */
+    private static class Node<T> {
+
+        private final T data;
+        private final Node<T> parent;
+
+        private Node(T data, Node<T> parent) {
+            this.data = data;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * @param solver, provides the successors and open list, it is called from every worker thread
+     * so it must not change shared state while calculating states
+     * @param threads, the number of workers
+     */
+    public ParallelAStar(AStarSolver<T> solver, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        this.solver = solver;
+        this.threads = threads;
+    }
+
+    /**
+     * Finds the shortest path to goal, the calling thread runs the first worker.
+     * A ParallelAStar solves one problem, create a new one for each search.
+     * @param initial, the initial state to calculate from
+     * @param goal, the goal state to calculate to
+     * @return the shortest path, or null if there is none or the calling thread was interrupted
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> solve(T initial, T goal) {
+        if (workers != null) {
+            throw new IllegalStateException("A ParallelAStar solves a single problem");
+        }
+        long start = System.nanoTime();
+        this.goal = goal;
+        solver.initialize(initial, goal);
+        workers = (Worker[]) new ParallelAStar<?>.Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+        }
+        send(new Node<>(initial, null));
+
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 1; i < threads; i++) {
+            Worker worker = workers[i];
+            helpers[i - 1] = new Thread(worker::run, "astar-hda-" + i);
+            helpers[i - 1].setDaemon(true);
+            helpers[i - 1].start();
+        }
+        workers[0].run();
+        boolean interrupted = Thread.interrupted();
+        for (Thread helper : helpers) {
+            while (true) {
+                try {
+                    helper.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+        Node<T> goalNode = incumbent.get();
+        if (goalNode == null || interrupted) {
+            return solver.finish(stats(), start, null);
+        }
+        ArrayList<T> list = new ArrayList<>();
+        for (Node<T> node = goalNode; node != null; node = node.parent) {
+            list.add(node.data);
+        }
+        Collections.reverse(list);
+        return solver.finish(stats(), start, list);
+    }
+
+    /**
+     * Sums the statistics of the workers, peaks are the sums of each worker's peak
+     * so they bound the real peak from above
+     */
+    private SearchStats stats() {
+        SearchStats stats = new SearchStats("parallelAStar");
+        for (Worker worker : workers) {
+            stats.expanded += worker.stats.expanded;
+            stats.generated += worker.stats.generated;
+            stats.duplicatesPruned += worker.stats.duplicatesPruned;
+            stats.peakOpen += worker.stats.peakOpen;
+            stats.peakClosed += worker.reached.size();
+            stats.expansionNanos += worker.stats.expansionNanos;
+            stats.heuristicNanos += worker.stats.heuristicNanos;
+        }
+        return stats;
+    }
+
+    /**
+     * Sends a node to the worker that owns its state
+     */
+    private void send(Node<T> node) {
+        int owner = (int) ((LongHashSet.mix(node.data.key()) >>> 1) % threads);
+        //count before queueing so a state in flight is never missed by the termination check
+        sent.incrementAndGet();
+        workers[owner].inbox.offer(node);
+    }
+
+    /**
+     * Records a path to the goal if it is cheaper than the best one found so far
+     */
+    private void offerSolution(Node<T> node) {
+        while (true) {
+            Node<T> best = incumbent.get();
+            if (best != null && best.data.g <= node.data.g) {
+                return;
+            }
+            if (incumbent.compareAndSet(best, node)) {
+                return;
+            }
+        }
+    }
+
+    private int incumbentCost() {
+        Node<T> best = incumbent.get();
+        return best == null ? Integer.MAX_VALUE : best.data.g;
+    }
+
+    /**
+     * Checks whether the search is over, every worker is idle and no state is in flight.
+     * The counts are read before and after the idle flags so a state sent or received
+     * while the flags are read is noticed.
+     */
+    private boolean terminated() {
+        long s = sent.get();
+        long r = received.get();
+        if (s != r) {
+            return false;
+        }
+        for (Worker worker : workers) {
+            if (!worker.idle) {
+                return false;
+            }
+        }
+        return sent.get() == s && received.get() == r;
+    }
+
+    /*
+     *    One worker with its own open list and the cheapest node reached for each state it owns
+     */
+    private class Worker {
+
+        private final ConcurrentLinkedQueue<Node<T>> inbox = new ConcurrentLinkedQueue<>();
+        private final OpenList<Node<T>> openSet = solver.createOpenList();
+        private final LongHashMap<Node<T>> reached = new LongHashMap<>();
+        /* Stays empty, states can be reached again with a cheaper path after they were expanded */
+        private final LongHashSet noClosed = new LongHashSet(1);
+        /* Only read once the worker thread has been joined */
+        private final SearchStats stats = new SearchStats("parallelAStar");
+        private final boolean timed = solver.getSearchListener() != null;
+        private volatile boolean idle = false;
+
+        private void run() {
+            try {
+                while (!done) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        done = true;
+                        return;
+                    }
+                    boolean worked = receive();
+                    int bound = incumbentCost();
+                    for (int i = 0; i < BATCH && !openSet.isEmpty() && openSet.peekF() < bound; i++) {
+                        idle = false;
+                        worked = true;
+                        expand();
+                        bound = incumbentCost();
+                    }
+                    if (!worked) {
+                        idle = true;
+                        if (terminated()) {
+                            done = true;
+                        } else {
+                            LockSupport.parkNanos(IDLE_NANOS);
+                        }
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                done = true;
+            }
+        }
+
+        /**
+         * Moves the states in the inbox into the open list
+         * @return true if any state was received
+         */
+        private boolean receive() {
+            if (inbox.isEmpty()) {
+                return false;
+            }
+            //mark busy before taking a state so an idle flag never hides a state in flight
+            idle = false;
+            Node<T> node;
+            while ((node = inbox.poll()) != null) {
+                long key = node.data.key();
+                Node<T> known = reached.get(key);
+                if (known == null || node.data.g < known.data.g) {
+                    reached.put(key, node);
+                    openSet.add(node, node.data.f, node.data.g);
+                } else {
+                    stats.duplicatesPruned++;
+                }
+                received.incrementAndGet();
+            }
+            stats.openSize(openSet.size());
+            return true;
+        }
+
+        private void expand() {
+            Node<T> current = openSet.poll();
+            //skip nodes that were queued again with a lower path cost
+            if (reached.get(current.data.key()) != current) {
+                stats.duplicatesPruned++;
+                return;
+            }
+            stats.expanded++;
+            if (solver.isEqualTo(current.data, goal)) {
+                offerSolution(current);
+                return;
+            }
+            long start = timed ? System.nanoTime() : 0;
+            ArrayList<T> toQueue = solver.successors(current.data, noClosed, goal, timed ? stats : null);
+            if (timed) {
+                stats.expansionNanos += System.nanoTime() - start;
+            }
+            stats.generated += toQueue.size();
+            for (T state : toQueue) {
+                if (state.f < incumbentCost()) {
+                    send(new Node<>(state, current));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * A pattern database for the sliding puzzle, stores the fewest moves of a group of tiles
+ * needed to bring them to their place in the goal, for every placement of the group.
+ * Only moves of tiles in the group are counted so databases of disjoint groups can be added.
+ * Built by a breadth first search backwards from the goal, see AdditivePatternDatabase to save and load
+ * The board may have any number of rows and columns up to 16 cells, so the 7-8 and 6-6-3 partitions
+ * of the 4x4 board can be built whatever size PuzzleState was compiled with.
+ * 10/17/26
+ */
+package astar;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ */
+public class PatternDatabase {
+
+    /* Marks a placement that has not been reached yet while building */
+    private static final byte UNSET = (byte) 0xFF;
+
+    /* The tiles in the group */
+    private final int[] tiles;
+    /* The shape of the board */
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    /* One byte per ranked placement of the group, read with absolute gets so it can be shared between threads */
+    private final ByteBuffer table;
+
+    /**
+     * @param tiles, the tiles in the group
+     * @param rows, the number of rows of the board
+     * @param cols, the number of columns of the board
+     * @param table, the distances indexed by placement rank
+     */
+    PatternDatabase(int[] tiles, int rows, int cols, ByteBuffer table) {
+        int cells = rows * cols;
+        if (table.capacity() != placements(cells, tiles.length)) {
+            throw new IllegalArgumentException("Table has " + table.capacity() + " entries, expected "
+                    + placements(cells, tiles.length));
+        }
+        this.tiles = tiles.clone();
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+        this.table = table;
+    }
+
+    public int[] getTiles() {
+        return tiles.clone();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    /**
+     * Gets a read only view of the table
+     * @return the table
+     */
+    ByteBuffer getTable() {
+        return table.asReadOnlyBuffer();
+    }
+
+    /**
+     * Looks up the distance of the group given the cell of every tile
+     * @param positions, positions[tile] is the cell the tile is on
+     * @return the fewest moves of the group's tiles needed to reach the goal
+     */
+    public int lookup(int[] positions) {
+        long rank = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            rank = rank * (cells - i) + digit(positions, i);
+        }
+        return table.get((int) rank) & 0xFF;
+    }
+
+    /**
+     * Looks up the distance of the group given the cells of every tile packed into a long, the cells
+     * taken by earlier tiles are kept as bits so each digit is one bit count
+     * @param positions, the cell of tile t in bits 4 * t to 4 * t + 3
+     * @return the fewest moves of the group's tiles needed to reach the goal
+     */
+    public int lookup(long positions) {
+        long rank = 0;
+        int taken = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int cell = (int) ((positions >>> (tiles[i] << 2)) & 0xF);
+            rank = rank * (cells - i) + cell - Integer.bitCount(taken & ((1 << cell) - 1));
+            taken |= 1 << cell;
+        }
+        return table.get((int) rank) & 0xFF;
+    }
+
+    /**
+     * Computes the digit of the i'th tile in the placement rank, its cell
+     * minus the number of cells taken by the tiles before it
+     */
+    private int digit(int[] positions, int i) {
+        int cell = positions[tiles[i]];
+        int smaller = 0;
+        for (int j = 0; j < i; j++) {
+            if (positions[tiles[j]] < cell) {
+                smaller++;
+            }
+        }
+        return cell - smaller;
+    }
+
+    /**
+     * Builds the database for a group of tiles
+     * @param goal, the goal state
+     * @param tiles, the tiles in the group, must not contain the 0
+     * @return the database
+     */
+    public static PatternDatabase build(PuzzleState goal, int[] tiles) {
+        return build(SlidingState.of(goal.getPuzzle()), tiles);
+    }
+
+    /**
+     * Builds the database for a group of tiles on a board of any shape
+     * @param goal, the goal state, at most 16 cells
+     * @param tiles, the tiles in the group, must not contain the 0
+     * @return the database
+     */
+    public static PatternDatabase build(SlidingState goal, int[] tiles) {
+        int rows = goal.getRows();
+        int cols = goal.getCols();
+        int cells = goal.cells();
+        int k = tiles.length;
+        if (cells > SlidingState.PACKED_CELLS) {
+            throw new IllegalArgumentException("A board needs at most " + SlidingState.PACKED_CELLS + " cells");
+        }
+        long size = placements(cells, k);
+        if (k == 0 || k >= cells || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A group needs between 1 and " + (cells - 1)
+                    + " tiles and at most " + Integer.MAX_VALUE + " placements");
+        }
+        int[] goalCells = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            goalCells[goal.tileAt(i)] = i;
+        }
+        for (int tile : tiles) {
+            if (tile <= 0 || tile >= cells) {
+                throw new IllegalArgumentException("Tile " + tile + " is not on the board");
+            }
+        }
+
+        byte[] table = new byte[(int) size];
+        Arrays.fill(table, UNSET);
+        //placements with the 0 included, the 0 is stored after the group's tiles
+        long[] visited = new long[(int) ((placements(cells, k + 1) + 63) >>> 6)];
+        int[] positions = new int[cells];
+        int[] owner = new int[cells];
+
+        //a placement is packed as 4 bits per tile, tile i of the group at bits 4 * i, the 0 last
+        long start = 0;
+        for (int i = 0; i < k; i++) {
+            start |= (long) goalCells[tiles[i]] << (i << 2);
+        }
+        start |= (long) goalCells[0] << (k << 2);
+
+        LongStack current = new LongStack();
+        LongStack next = new LongStack();
+        current.push(start);
+        int distance = 0;
+        while (!current.isEmpty()) {
+            while (!current.isEmpty()) {
+                long placement = current.pop();
+                for (int i = 0; i <= k; i++) {
+                    positions[i] = (int) ((placement >>> (i << 2)) & 0xF);
+                }
+                long withBlank = rank(positions, k + 1, cells);
+                if ((visited[(int) (withBlank >>> 6)] & (1L << withBlank)) != 0) {
+                    continue;
+                }
+                visited[(int) (withBlank >>> 6)] |= 1L << withBlank;
+                int rank = (int) rank(positions, k, cells);
+                if (table[rank] == UNSET) {
+                    table[rank] = (byte) Math.min(distance, 0xFE);
+                }
+
+                Arrays.fill(owner, -1);
+                for (int i = 0; i < k; i++) {
+                    owner[positions[i]] = i;
+                }
+                int blank = positions[k];
+                int row = blank / cols;
+                int col = blank % cols;
+                for (int direction = 0; direction < PuzzleState.ACTIONS.length; direction++) {
+                    int cell = neighbour(row, col, direction, rows, cols);
+                    if (cell < 0) {
+                        continue;
+                    }
+                    long moved = (placement & ~(0xFL << (k << 2))) | ((long) cell << (k << 2));
+                    if (owner[cell] < 0) {
+                        //moving the 0 over a tile outside the group is free
+                        current.push(moved);
+                    } else {
+                        int shift = owner[cell] << 2;
+                        next.push((moved & ~(0xFL << shift)) | ((long) blank << shift));
+                    }
+                }
+            }
+            LongStack swap = current;
+            current = next;
+            next = swap;
+            distance++;
+        }
+        return new PatternDatabase(tiles, rows, cols, ByteBuffer.wrap(table));
+    }
+
+    /**
+     * Gets the cell next to a cell in a direction
+     * @return the cell, or -1 if it is off the board
+     */
+    private static int neighbour(int row, int col, int direction, int rows, int cols) {
+        switch (direction) {
+            case PuzzleState.UP:
+                row--;
+                break;
+            case PuzzleState.DOWN:
+                row++;
+                break;
+            case PuzzleState.LEFT:
+                col--;
+                break;
+            default:
+                col++;
+                break;
+        }
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return -1;
+        }
+        return row * cols + col;
+    }
+
+    /**
+     * Ranks the placement given by the first count entries of positions
+     * @param positions, the cell of each tile
+     * @param count, the number of tiles to rank
+     * @param cells, the number of cells on the board
+     * @return the rank, between 0 and placements(cells, count) - 1
+     */
+    private static long rank(int[] positions, int count, int cells) {
+        long rank = 0;
+        for (int i = 0; i < count; i++) {
+            int smaller = 0;
+            for (int j = 0; j < i; j++) {
+                if (positions[j] < positions[i]) {
+                    smaller++;
+                }
+            }
+            rank = rank * (cells - i) + positions[i] - smaller;
+        }
+        return rank;
+    }
+
+    /**
+     * Counts the ways to place tiles on distinct cells
+     * @param cells, the number of cells
+     * @param tiles, the number of tiles
+     * @return cells! / (cells - tiles)!
+     */
+    public static long placements(int cells, int tiles) {
+        long count = 1;
+        for (int i = 0; i < tiles; i++) {
+            count *= cells - i;
+        }
+        return count;
+    }
+
+    /*
+     *    Growable stack of packed placements used while building
+     */
+    private static class LongStack {
+
+        private long[] values = new long[1024];
+        private int size = 0;
+
+        private void push(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        private long pop() {
+            return values[--size];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
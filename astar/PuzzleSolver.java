@@ -6,13 +6,48 @@
  */
 package astar;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
  * @author Joseph
  */
-public class PuzzleSolver extends AStarSolver<PuzzleState> {
+public class PuzzleSolver extends InPlaceSolver<PuzzleState> {
+
+    /* Pattern databases for the goal, or null to use manhattan distance and linear conflict only */
+    private final AdditivePatternDatabase patterns;
+    /* Tables of the last two goals searched for, bidirectional search alternates between two */
+    private volatile GoalTable goalTable;
+    private volatile GoalTable previousGoalTable;
+    /* The batch heuristic of the last goal scored by estimateBatch */
+    private volatile BatchHeuristic batchHeuristic;
+    /* The boards and estimates of a batch, kept between batches and grown to the largest one */
+    private long[] batchBoards = new long[0];
+    private int[] batchEstimates = new int[0];
+
+    public PuzzleSolver() {
+        this(null);
+    }
+
+    /**
+     * @param patterns, pattern databases used to strengthen the heuristic, or null for none
+     */
+    public PuzzleSolver(AdditivePatternDatabase patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Moves cost 1 so f is a small integer, a bucket list orders it in constant time
+     * @param <E>, the type of element held by the list
+     * @return an empty open list
+     */
+    @Override
+    protected <E> OpenList<E> createOpenList() {
+        return new BucketOpenList<>();
+    }
 
     /**
      * Returns whether two states are equal
@@ -22,62 +57,257 @@ public class PuzzleSolver extends AStarSolver<PuzzleState> {
      */
     @Override
     public boolean isEqualTo(PuzzleState current, PuzzleState goal) {
-        return current.isEqualTo(goal.getPuzzle());
+        return current.isEqualTo(goal);
     }
 
     /**
      * Calculates the next possible states based off the current node and closed nodes
      * @param pathCost, the pathCost of the current state
      * @param current, the current state
-     * @param closedNodes, nodes already expanded
+     * @param closedNodes, keys of the nodes already expanded
      * @param goalNode, the goal node 
      * @return a list of states
      */
     @Override
-    public ArrayList<PuzzleState> calculateStates(int pathCost, PuzzleState current, ArrayList<PuzzleState> closedNodes, PuzzleState goalNode) {
-        
+    public ArrayList<PuzzleState> calculateStates(int pathCost, PuzzleState current, LongHashSet closedNodes, PuzzleState goalNode) {
         ArrayList<PuzzleState> list = new ArrayList<>();
+        expand(current, goalNode, Successors.into(closedNodes, list));
+        return list;
+    }
+
+    /**
+     * Pushes the next possible states to the solver without building a list
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param successors, receives the successors
+     */
+    @Override
+    protected void expand(PuzzleState current, PuzzleState goal, Successors<PuzzleState> successors) {
+        GoalTable table = goalTable(goal);
+        AdditivePatternDatabase goalPatterns = patterns(goal);
         PuzzleState upPuzzle = current.moveUp();
-        if (upPuzzle != null && !listContains(closedNodes, upPuzzle.getPuzzle())) {
+        if (upPuzzle != null && !successors.isClosed(upPuzzle.key())) {
             upPuzzle.setAction("Up");
-            upPuzzle.calculateHeursitic(pathCost, goalNode.getPuzzle());
-            list.add(upPuzzle);
+            long started = successors.heuristicStarted();
+            upPuzzle.calculateHeursitic(current, table, goalPatterns);
+            successors.heuristicFinished(started);
+            successors.add(upPuzzle);
         }
 
         PuzzleState downPuzzle = current.moveDown();
-        if (downPuzzle != null && !listContains(closedNodes, downPuzzle.getPuzzle())) {
+        if (downPuzzle != null && !successors.isClosed(downPuzzle.key())) {
             downPuzzle.setAction("Down");
-            downPuzzle.calculateHeursitic(pathCost, goalNode.getPuzzle());
-            list.add(downPuzzle);
+            long started = successors.heuristicStarted();
+            downPuzzle.calculateHeursitic(current, table, goalPatterns);
+            successors.heuristicFinished(started);
+            successors.add(downPuzzle);
         }
 
         PuzzleState rightPuzzle = current.moveRight();
-        if (rightPuzzle != null && !listContains(closedNodes, rightPuzzle.getPuzzle())) {
+        if (rightPuzzle != null && !successors.isClosed(rightPuzzle.key())) {
             rightPuzzle.setAction("Right");
-            rightPuzzle.calculateHeursitic(pathCost, goalNode.getPuzzle());
-            list.add(rightPuzzle);
+            long started = successors.heuristicStarted();
+            rightPuzzle.calculateHeursitic(current, table, goalPatterns);
+            successors.heuristicFinished(started);
+            successors.add(rightPuzzle);
         }
 
         PuzzleState leftPuzzle = current.moveLeft();
-        if (leftPuzzle != null && !listContains(closedNodes, leftPuzzle.getPuzzle())) {
+        if (leftPuzzle != null && !successors.isClosed(leftPuzzle.key())) {
             leftPuzzle.setAction("Left");
-            leftPuzzle.calculateHeursitic(pathCost, goalNode.getPuzzle());
-            list.add(leftPuzzle);
+            long started = successors.heuristicStarted();
+            leftPuzzle.calculateHeursitic(current, table, goalPatterns);
+            successors.heuristicFinished(started);
+            successors.add(leftPuzzle);
         }
-        return list;
     }
-    
+
+    /**
+     * Moves the 0 of the current state in place to find the f of each move,
+     * a successor is only built when its f is the one asked for
+     * @param current, the current state, moved and put back
+     * @param goal, the goal state
+     * @param f, the f of the successors to generate
+     * @param successors, receives the successors
+     * @return the lowest successor f above f, or Integer.MAX_VALUE if there is none
+     */
+    @Override
+    protected int expandPartial(PuzzleState current, PuzzleState goal, int f, Successors<PuzzleState> successors) {
+        int h = current.f - current.g;
+        int next = Integer.MAX_VALUE;
+        for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+            if (!current.move(move)) {
+                continue;
+            }
+            long started = successors.heuristicStarted();
+            int childF = current.g + 1 + estimateAfterMove(current, move, h, goal);
+            successors.heuristicFinished(started);
+            if (childF >= f && !successors.isClosed(current.key())) {
+                if (childF == f) {
+                    PuzzleState child = copyState(current, move);
+                    child.g = current.g + 1;
+                    child.f = childF;
+                    successors.add(child);
+                } else if (childF < next) {
+                    next = childF;
+                }
+            }
+            current.move(PuzzleState.inverse(move));
+        }
+        return next;
+    }
+
+    /**
+     * Moves the 0 of the current state in place and copies each successor with only its path cost set
+     * @param current, the current state, moved and put back
+     * @param goal, the goal state
+     * @param successors, receives the successors
+     */
+    @Override
+    protected void expandUnscored(PuzzleState current, PuzzleState goal, Successors<PuzzleState> successors) {
+        for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+            if (!current.move(move)) {
+                continue;
+            }
+            if (!successors.isClosed(current.key())) {
+                PuzzleState child = copyState(current, move);
+                child.g = current.g + 1;
+                successors.add(child);
+            }
+            current.move(PuzzleState.inverse(move));
+        }
+    }
+
+    /**
+     * Scores the boards of a batch together with the goal's BatchHeuristic,
+     * with pattern databases each state is estimated on its own
+     * @param states, the successors of every node in the batch
+     * @param goal, the goal state
+     */
+    @Override
+    protected void estimateBatch(ArrayList<PuzzleState> states, PuzzleState goal) {
+        if (patterns(goal) != null) {
+            for (PuzzleState state : states) {
+                state.f = state.g + estimate(state, goal);
+            }
+            return;
+        }
+        int count = states.size();
+        if (batchBoards.length < count) {
+            int capacity = Math.max(count, batchBoards.length << 1);
+            batchBoards = new long[capacity];
+            batchEstimates = new int[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            batchBoards[i] = states.get(i).getBoard();
+        }
+        batchHeuristic(goal).estimate(batchBoards, batchEstimates, count);
+        for (int i = 0; i < count; i++) {
+            PuzzleState state = states.get(i);
+            state.f = state.g + batchEstimates[i];
+        }
+    }
+
+    @Override
+    protected void restoreState(PuzzleState state, long key) {
+        state.setBoard(key);
+    }
+
+    @Override
+    protected int moveCount() {
+        return PuzzleState.ACTIONS.length;
+    }
+
+    @Override
+    protected int applyMove(PuzzleState state, int move) {
+        return state.move(move) ? 1 : -1;
+    }
+
+    @Override
+    protected void undoMove(PuzzleState state, int move) {
+        state.move(PuzzleState.inverse(move));
+    }
+
+    @Override
+    protected int inverseMove(int move) {
+        return PuzzleState.inverse(move);
+    }
+
+    @Override
+    protected int estimate(PuzzleState state, PuzzleState goal) {
+        return state.estimate(goalTable(goal), patterns(goal));
+    }
+
+    @Override
+    protected int estimateAfterMove(PuzzleState state, int move, int h, PuzzleState goal) {
+        return state.estimateAfterMove(move, h, goalTable(goal), patterns(goal));
+    }
+
+    @Override
+    protected void initialize(PuzzleState initial, PuzzleState goal) {
+        initial.g = 0;
+        initial.f = estimate(initial, goal);
+    }
+
+    @Override
+    protected PuzzleState copyState(PuzzleState state, int move) {
+        PuzzleState copy = state.copy();
+        copy.setAction(move < 0 ? "" : PuzzleState.ACTIONS[move]);
+        return copy;
+    }
+
+    @Override
+    protected void orient(PuzzleState previous, PuzzleState state) {
+        int direction = PuzzleState.direction(previous, state);
+        state.setAction(direction < 0 ? "" : PuzzleState.ACTIONS[direction]);
+    }
+
     /**
-     * Checks if a puzzle state list contains a puzzle
+     * Gets the table of a goal, building it if the goal differs from the last two
      *
-     * @param closeSet the list to check
-     * @param puzzle, the puzzle to check
-     * @return boolean true or false
+     * @param goal, the goal state
+     * @return the table
      */
-    public static boolean listContains(ArrayList<PuzzleState> closeSet, int[][] puzzle) {
-        return closeSet.stream().anyMatch((PuzzleState node) -> (node.isEqualTo(puzzle)));
+    private GoalTable goalTable(PuzzleState goal) {
+        GoalTable table = goalTable;
+        if (table != null && table.isFor(goal)) {
+            return table;
+        }
+        GoalTable previous = previousGoalTable;
+        if (previous == null || !previous.isFor(goal)) {
+            previous = new GoalTable(goal);
+        }
+        previousGoalTable = table;
+        goalTable = previous;
+        return previous;
     }
-    
+
+    /**
+     * Gets the batch heuristic of a goal, building it if the goal differs from the last one
+     *
+     * @param goal, the goal state
+     * @return the batch heuristic
+     */
+    private BatchHeuristic batchHeuristic(PuzzleState goal) {
+        BatchHeuristic heuristic = batchHeuristic;
+        if (heuristic == null || !heuristic.isFor(goal)) {
+            heuristic = BatchHeuristic.forGoal(goalTable(goal));
+            batchHeuristic = heuristic;
+        }
+        return heuristic;
+    }
+
+    /**
+     * Gets the pattern databases if they were built for a goal, the backward direction
+     * of a bidirectional search aims at the initial state so it goes without
+     *
+     * @param goal, the goal state
+     * @return the pattern databases, or null
+     */
+    private AdditivePatternDatabase patterns(PuzzleState goal) {
+        return patterns != null && patterns.isBuiltFor(goal) ? patterns : null;
+    }
+
     /**
      * Static method to show standard usage of AStar for EightPuzzle
      *
@@ -91,8 +321,125 @@ public class PuzzleSolver extends AStarSolver<PuzzleState> {
         return list;
     }
 
+    /**
+     * Static method to show usage of IDAStar for EightPuzzle, uses memory linear in the solution length
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return, the solution as a list of PuzzleStates, or null if the pair is not solvable
+     */
+    public static ArrayList<PuzzleState> IDAStar(int[][] initial, int[][] goal) {
+        //IDAStar keeps no closed set, so it would search an unsolvable pair forever
+        if (!Solvability.isSolvable(initial, goal)) {
+            return null;
+        }
+        PuzzleSolver solver = new PuzzleSolver();
+        return solver.IDAStar(new PuzzleState(initial), new PuzzleState(goal));
+    }
+
+    /**
+     * Static method to show usage of bidirectionalAStar for EightPuzzle
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return, the solution as a list of PuzzleStates
+     */
+    public static ArrayList<PuzzleState> bidirectionalAStar(int[][] initial, int[][] goal) {
+        PuzzleSolver solver = new PuzzleSolver();
+        return solver.bidirectionalAStar(new PuzzleState(initial), new PuzzleState(goal));
+    }
+
+    /**
+     * Static method to show usage of compactAStar for EightPuzzle, nodes are kept in primitive arrays
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return, the solution as a list of PuzzleStates
+     */
+    public static ArrayList<PuzzleState> compactAStar(int[][] initial, int[][] goal) {
+        PuzzleSolver solver = new PuzzleSolver();
+        return solver.compactAStar(new PuzzleState(initial), new PuzzleState(goal));
+    }
+
+    /**
+     * Static method to show usage of frontierAStar for EightPuzzle, expanded nodes are not kept
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return, the solution as a list of PuzzleStates
+     */
+    public static ArrayList<PuzzleState> frontierAStar(int[][] initial, int[][] goal) {
+        PuzzleSolver solver = new PuzzleSolver();
+        return solver.frontierAStar(new PuzzleState(initial), new PuzzleState(goal));
+    }
+
+    /**
+     * Static method to show usage of a DistanceTable for EightPuzzle, the table answers without searching
+     * when it was built for the goal, otherwise AStar is used
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @param table, the distance table
+     * @return, the solution as a list of PuzzleStates
+     */
+    public static ArrayList<PuzzleState> tableSolve(int[][] initial, int[][] goal, DistanceTable table) {
+        PuzzleState end = new PuzzleState(goal);
+        if (table.isBuiltFor(end)) {
+            return table.solve(new PuzzleState(initial));
+        }
+        return new PuzzleSolver().AStar(new PuzzleState(initial), end);
+    }
+
+    /**
+     * Static method to show usage of compactAStarMoves for EightPuzzle, the solution is kept as 2 bits per move
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return, the solution, or null if there is none
+     */
+    public static Solution solveCompact(int[][] initial, int[][] goal) {
+        PuzzleSolver solver = new PuzzleSolver();
+        PuzzleState start = new PuzzleState(initial);
+        int[] moves = solver.compactAStarMoves(start, new PuzzleState(goal));
+        return moves == null ? null : new Solution(start, moves, moves.length);
+    }
+
+    /**
+     * Static method to show usage of anytimeAStar for EightPuzzle, starts with the heuristic weighted 3 times
+     *
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @param timeout, how long the search may run
+     * @param unit, the unit of the timeout
+     * @return, the best solution found and how far from optimal it may be
+     */
+    public static AnytimeResult<PuzzleState> anytimeAStar(int[][] initial, int[][] goal, long timeout, TimeUnit unit) {
+        PuzzleSolver solver = new PuzzleSolver();
+        return solver.anytimeAStar(new PuzzleState(initial), new PuzzleState(goal), 3, timeout, unit);
+    }
+
+    /**
+     * Static method to show usage of BatchSolver for EightPuzzle, the pairs are solved in parallel
+     * on the common fork join pool with a new solver for each pair
+     *
+     * @param pairs, pairs of {initial, goal} puzzles
+     * @param timeout, the longest a single search may run, or 0 for no limit
+     * @param unit, the unit of the timeout
+     * @return, the solutions in the order of the pairs, null where there was no solution in time
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static List<ArrayList<PuzzleState>> AStar(List<int[][][]> pairs, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        List<BatchSolver.Problem<PuzzleState>> problems = new ArrayList<>(pairs.size());
+        pairs.forEach((pair) -> problems.add(new BatchSolver.Problem<>(new PuzzleState(pair[0]), new PuzzleState(pair[1]))));
+        BatchSolver<PuzzleState> batch = new BatchSolver<>(PuzzleSolver::new);
+        List<ArrayList<PuzzleState>> solutions = new ArrayList<>(pairs.size());
+        batch.solveAll(problems, timeout, unit).forEach((result) -> solutions.add(result.getPath()));
+        return solutions;
+    }
+
     /* An example of the classes being used*/
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         
         //final long startTime = System.currentTimeMillis()
 
@@ -104,19 +451,18 @@ public class PuzzleSolver extends AStarSolver<PuzzleState> {
                            {3, 4, 5}, 
                            {6, 7, 8}};
         
+        SolutionWriter writer = new SolutionWriter(System.out);
         if(PuzzleState.isSolvable(initial, goal) && PuzzleState.properZeros(initial) 
                 && PuzzleState.properZeros(goal)) {
-            System.out.println("Solvable");
-            ArrayList<PuzzleState> list = AStar(initial, goal);
-            list.forEach((state) -> {
-                System.out.println(state.getAction());
-                PuzzleState.printPuzzle(state);
-            });
-            int size = list.size() - 1;
-            System.out.println("Solved in " + size + " steps.");
+            writer.writeLine("Solvable");
+            Solution solution = Solution.of(AStar(initial, goal));
+            writer.writeStates(solution);
+            writer.writeLine("Solved in " + solution.length() + " steps.");
         } else {
-            System.out.println("Not Solvable");
+            writer.writeLine("Not Solvable");
         }
+        //flush rather than close so System.out stays open
+        writer.flush();
         
         //final long endTime = System.currentTimeMillis();
         //System.out.println("Total execution time: " + (endTime - startTime));
@@ -12,21 +12,30 @@ import java.util.Arrays;
  */
 public class PuzzleState extends AStarSolver.AIState {
 
-    /* Static variable to store the size of the board to solve, can be changed to any board size*/
+    /* Static variable to store the size of the board to solve, can be changed to any board size up to 4*/
     public static final int BOARD_SIZE = 3;
-    /* The NxN puzzle for each state */
-    private final int[][] puzzle;
+    /* The number of tiles on the board, each tile is packed into 4 bits so at most 16 fit */
+    private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+    private static final long TILE_MASK = 0xFL;
+    /* Directions the 0 can move in, a direction xor 1 is its inverse */
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    public static final String[] ACTIONS = {"Up", "Down", "Left", "Right"};
+    /* The NxN puzzle for each state, the tile at cell (i, j) is stored at bits 4 * (i * BOARD_SIZE + j) */
+    private long board;
     /* The action taken to get to a state*/
     private String action = "";
-    /* The position of the 0 */
-    private final int row;
-    private final int col;
+    /* The position of the 0, only changed by move() */
+    private int row;
+    private int col;
 
     /**
      * @param puzzle, a N x N column of any length, assuming row and column length is the same
      */
     public PuzzleState(int[][] puzzle) {
-        this.puzzle = puzzle;
+        this.board = pack(puzzle);
         //calculate the position of 0 in current
         int rowIn = -1;
         int colIn = -1;
@@ -49,7 +58,18 @@ public class PuzzleState extends AStarSolver.AIState {
      * @param colIn, the column 0 is on 
      */
     public PuzzleState(int[][] puzzle, int rowIn, int colIn) {
-        this.puzzle = puzzle;
+        this.board = pack(puzzle);
+        this.row = rowIn;
+        this.col = colIn;
+    }
+
+    /**
+     * @param board, the packed board
+     * @param rowIn, the row 0 is on
+     * @param colIn, the column 0 is on 
+     */
+    private PuzzleState(long board, int rowIn, int colIn) {
+        this.board = board;
         this.row = rowIn;
         this.col = colIn;
     }
@@ -70,13 +90,49 @@ public class PuzzleState extends AStarSolver.AIState {
         return !action.equals("");
     }
 
+    /**
+     * Gets the puzzle as a 2D array, the array is a copy so changing it does not change the state
+     *
+     * @return the NxN puzzle
+     */
     public int[][] getPuzzle() {
+        int[][] puzzle = new int[BOARD_SIZE][BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                puzzle[i][j] = tileAt(i, j);
+            }
+        }
         return puzzle;
     }
 
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the tile on a cell of the board
+     *
+     * @param i, the row of the cell
+     * @param j, the column of the cell
+     * @return the tile
+     */
+    public int tileAt(int i, int j) {
+        return (int) ((board >>> ((i * BOARD_SIZE + j) << 2)) & TILE_MASK);
+    }
+
     public void setAction(String action) {
         this.action = action;
     }
+
+    /**
+     * The key of a state is its packed board
+     *
+     * @return the key of the state
+     */
+    @Override
+    public long key() {
+        return board;
+    }
     
     /**
      * Gets a version of the 8puzzle shifted up
@@ -87,13 +143,7 @@ public class PuzzleState extends AStarSolver.AIState {
         if (row - 1 < 0) {
             return null;
         }
-        int[][] arrPuzz = cloneArray(this.puzzle);
-
-        int temp = arrPuzz[row][col];
-        arrPuzz[row][col] = arrPuzz[row - 1][col];
-        arrPuzz[row - 1][col] = temp;
-
-        return new PuzzleState(arrPuzz, row-1, col);
+        return slide(row - 1, col);
     }
 
     /**
@@ -105,13 +155,7 @@ public class PuzzleState extends AStarSolver.AIState {
         if (row + 1 > BOARD_SIZE-1) {
             return null;
         }
-        int[][] arrPuzz = cloneArray(this.puzzle);
-
-        int temp = arrPuzz[row][col];
-        arrPuzz[row][col] = arrPuzz[row + 1][col];
-        arrPuzz[row + 1][col] = temp;
-
-        return new PuzzleState(arrPuzz, row+1, col);
+        return slide(row + 1, col);
     }
 
     /**
@@ -123,13 +167,7 @@ public class PuzzleState extends AStarSolver.AIState {
         if (col - 1 < 0) {
             return null;
         }
-        int[][] arrPuzz = cloneArray(this.puzzle);
-
-        int temp = arrPuzz[row][col];
-        arrPuzz[row][col] = arrPuzz[row][col - 1];
-        arrPuzz[row][col - 1] = temp;
-
-        return new PuzzleState(arrPuzz, row, col-1);
+        return slide(row, col - 1);
     }
 
     /**
@@ -141,13 +179,129 @@ public class PuzzleState extends AStarSolver.AIState {
         if (col + 1 > BOARD_SIZE-1) {
             return null;
         }
-        int[][] arrPuzz = cloneArray(this.puzzle);
+        return slide(row, col + 1);
+    }
+
+    /**
+     * Moves the 0 in place, used by searches that undo moves instead of copying states
+     *
+     * @param direction, one of UP, DOWN, LEFT or RIGHT
+     * @return true if the 0 was moved, false if it is against the edge
+     */
+    public boolean move(int direction) {
+        int rowTo = row;
+        int colTo = col;
+        switch (direction) {
+            case UP:
+                rowTo--;
+                break;
+            case DOWN:
+                rowTo++;
+                break;
+            case LEFT:
+                colTo--;
+                break;
+            case RIGHT:
+                colTo++;
+                break;
+            default:
+                return false;
+        }
+        if (rowTo < 0 || rowTo > BOARD_SIZE-1 || colTo < 0 || colTo > BOARD_SIZE-1) {
+            return false;
+        }
+        board = swap(rowTo, colTo);
+        row = rowTo;
+        col = colTo;
+        return true;
+    }
 
-        int temp = arrPuzz[row][col];
-        arrPuzz[row][col] = arrPuzz[row][col + 1];
-        arrPuzz[row][col + 1] = temp;
+    /**
+     * Sets the board in place and finds the 0 on it, used to restore a state from its key
+     *
+     * @param board, the packed board
+     */
+    public void setBoard(long board) {
+        this.board = board;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (((board >>> (cell << 2)) & TILE_MASK) == 0) {
+                this.row = cell / BOARD_SIZE;
+                this.col = cell % BOARD_SIZE;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("A board needs a 0");
+    }
 
-        return new PuzzleState(arrPuzz, row, col+1);
+    /**
+     * Copies the state, the copy has the same board, 0 position and action
+     *
+     * @return the copy
+     */
+    public PuzzleState copy() {
+        PuzzleState state = new PuzzleState(board, row, col);
+        state.action = action;
+        state.g = g;
+        state.f = f;
+        return state;
+    }
+
+    /**
+     * Gets the inverse of a direction
+     *
+     * @param direction, the direction to invert
+     * @return the direction that undoes it
+     */
+    public static int inverse(int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * Finds the direction the 0 moves in to get from one state to a neighbouring state
+     *
+     * @param from, the state before the move
+     * @param to, the state after the move
+     * @return UP, DOWN, LEFT or RIGHT, or -1 if the 0 did not move to a neighbouring cell
+     */
+    public static int direction(PuzzleState from, PuzzleState to) {
+        int rows = to.row - from.row;
+        int cols = to.col - from.col;
+        if (cols == 0 && rows == -1) {
+            return UP;
+        } else if (cols == 0 && rows == 1) {
+            return DOWN;
+        } else if (rows == 0 && cols == -1) {
+            return LEFT;
+        } else if (rows == 0 && cols == 1) {
+            return RIGHT;
+        }
+        return -1;
+    }
+
+    /**
+     * Swaps the 0 with the tile on a neighbouring cell, returning the new state
+     *
+     * @param rowTo, the row the 0 moves to
+     * @param colTo, the column the 0 moves to
+     * @return the new state
+     */
+    private PuzzleState slide(int rowTo, int colTo) {
+        return new PuzzleState(swap(rowTo, colTo), rowTo, colTo);
+    }
+
+    /**
+     * Swaps the 0 with the tile on a neighbouring cell, since the 0 is stored as
+     * empty bits only the tile has to be moved
+     *
+     * @param rowTo, the row the 0 moves to
+     * @param colTo, the column the 0 moves to
+     * @return the packed board after the swap
+     */
+    private long swap(int rowTo, int colTo) {
+        int from = (rowTo * BOARD_SIZE + colTo) << 2;
+        int to = (row * BOARD_SIZE + col) << 2;
+        long tile = (board >>> from) & TILE_MASK;
+        return (board & ~(TILE_MASK << from)) | (tile << to);
     }
 
     /**
@@ -156,25 +310,100 @@ public class PuzzleState extends AStarSolver.AIState {
      *
      * @param prevCost, the cost of the previous state
      * @param goalpuzzle, the goal puzzle used to calculate heuristic value
+     * @deprecated builds a GoalTable of the goal on every call, build one per goal and use
+     * calculateHeursitic(int, GoalTable) or calculateHeursitic(PuzzleState, GoalTable, AdditivePatternDatabase)
      */
+    @Deprecated
     public void calculateHeursitic(int prevCost, int[][] goalpuzzle) {
+        calculateHeursitic(prevCost, new GoalTable(new PuzzleState(goalpuzzle)));
+    }
+
+    /**
+     * Calculates the heuristic value for a puzzle state using manhattan distance,
+     * and sets the path cost.
+     *
+     * @param prevCost, the cost of the previous state
+     * @param goal, the table of the goal used to calculate heuristic value
+     */
+    public void calculateHeursitic(int prevCost, GoalTable goal) {
         this.g = ++prevCost;
-        int h = 0;
-        //calculate the manhattan distance for each different tile and add it to the g value
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                for (int k = 0; k < BOARD_SIZE; k++) {
-                    for (int l = 0; l < BOARD_SIZE; l++) {
-                        if (goalpuzzle[k][l] == this.puzzle[i][j] && goalpuzzle[k][l] != 0) {
-                            h = h + calcManhattanDistance(i, j, k, l);
-                        }
-                    }
-                }
-            }
+        this.f = g + goal.manhattan(board);
+    }
+
+    /**
+     * Calculates the heuristic value for a puzzle state from the value of the state it was reached from,
+     * and sets the path cost. A move changes one tile, so without pattern databases only that tile's
+     * distance and the linear conflict of the lines it leaves and enters are recalculated.
+     *
+     * @param parent, the state this state was reached from in one move
+     * @param goal, the table of the goal used to calculate heuristic value
+     * @param patterns, pattern databases built for the goal, or null to use manhattan distance and linear conflict only
+     */
+    public void calculateHeursitic(PuzzleState parent, GoalTable goal, AdditivePatternDatabase patterns) {
+        this.g = parent.g + 1;
+        int h;
+        if (patterns == null) {
+            h = parent.f - parent.g + goal.delta(board, parent.row * BOARD_SIZE + parent.col, row * BOARD_SIZE + col);
+        } else {
+            h = estimate(goal, patterns);
         }
         this.f = g + h;
     }
 
+    /**
+     * Estimates the moves left to the goal after this state was moved in place, from the estimate before the move
+     *
+     * @param direction, the direction the 0 was moved in
+     * @param h, the heuristic value before the move
+     * @param goal, the table of the goal
+     * @param patterns, pattern databases built for the goal, or null to use manhattan distance and linear conflict only
+     * @return the heuristic value
+     */
+    public int estimateAfterMove(int direction, int h, GoalTable goal, AdditivePatternDatabase patterns) {
+        if (patterns != null) {
+            return estimate(goal, patterns);
+        }
+        int to = row * BOARD_SIZE + col;
+        int from = to - (direction == UP ? -BOARD_SIZE : direction == DOWN ? BOARD_SIZE : direction == LEFT ? -1 : 1);
+        return h + goal.delta(board, from, to);
+    }
+
+    /**
+     * Estimates the moves left to the goal using manhattan distance with linear conflict, and the pattern
+     * databases if there are any. Both heuristics are admissible so their maximum is too.
+     *
+     * @param goal, the table of the goal
+     * @param patterns, pattern databases built for the goal, or null to use manhattan distance and linear conflict only
+     * @return the heuristic value
+     */
+    public int estimate(GoalTable goal, AdditivePatternDatabase patterns) {
+        int h = goal.estimate(board);
+        if (patterns != null) {
+            h = Math.max(h, patterns.estimate(this));
+        }
+        return h;
+    }
+
+    /**
+     * Checks whether two 8puzzles are equal
+     *
+     * @param other, the state to check
+     * @return True or false
+     */
+    public boolean isEqualTo(PuzzleState other) {
+        return this.board == other.board;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PuzzleState && isEqualTo((PuzzleState) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(board);
+    }
+
     /**
      * Checks whether two 8puzzles are equal
      *
@@ -184,7 +413,7 @@ public class PuzzleState extends AStarSolver.AIState {
     public boolean isEqualTo(int[][] puzzle) {
         for (int i = 0; i < puzzle.length; i++) {
             for (int j = 0; j < puzzle.length; j++) {
-                if (this.puzzle[i][j] != puzzle[i][j]) {
+                if (tileAt(i, j) != puzzle[i][j]) {
                     return false;
                 }
             }
@@ -205,6 +434,25 @@ public class PuzzleState extends AStarSolver.AIState {
         return Math.abs(x2 - x1) + Math.abs(y2 - y1);
     }
 
+    /**
+     * Packs a puzzle into a long, 4 bits per tile
+     *
+     * @param puzzle, the puzzle to pack
+     * @return the packed board
+     */
+    public static long pack(int[][] puzzle) {
+        if (CELLS > 16) {
+            throw new IllegalArgumentException("Packed boards hold at most 16 tiles");
+        }
+        long board = 0;
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                board |= ((long) puzzle[i][j] & TILE_MASK) << ((i * BOARD_SIZE + j) << 2);
+            }
+        }
+        return board;
+    }
+
     /**
      * Clones the provided array
      *
@@ -259,7 +507,7 @@ public class PuzzleState extends AStarSolver.AIState {
      * @param puzzlestate, the puzzlestate to print
      */
     public static void printPuzzle(PuzzleState puzzlestate) {
-        int[][] puzzle = puzzlestate.puzzle;
+        int[][] puzzle = puzzlestate.getPuzzle();
         for (int[] puzzle1 : puzzle) {
             System.out.print("{");
             for (int j = 0; j < BOARD_SIZE; j++) {
@@ -306,78 +554,39 @@ public class PuzzleState extends AStarSolver.AIState {
   
     
     /**
-     * Checks if a pair is solvable
+     * Checks if a pair is solvable, see Solvability
      * @param start, the initial puzzle
      * @param goal, the goal puzzle
      * @return true or false
      */
     public static boolean isSolvable(int[][] start, int[][] goal) {
-        int invCount = calcInvCount(start, goal);
-        if(BOARD_SIZE % 2 == 0) {
-            int zeroStart = find0Position(start);
-            if(zeroStart % 2 == 0 && !(invCount % 2 == 0)) {
-                return true;
-            }
-            else if (!(zeroStart % 2 == 0) && (invCount % 2 == 0)){
-                return true;
-            }
-            return false;
-        }
-        else {
-            return invCount % 2 == 0; 
-        }
+        return Solvability.isSolvable(start, goal);
     }
     
     /**
-     * Calculates the number of inversions for a board setting
+     * Calculates the number of inversions for a board setting, the pairs of tiles other than 0
+     * that the start holds in a different order to the goal, over every cell of the board
      * @param start, the initial puzzle
      * @param goal, the goal puzzle
      * @return the number of inversions
      */
     public static int calcInvCount(int[][] start, int[][] goal) 
     { 
-        int[] startone = new int[BOARD_SIZE  * BOARD_SIZE];
-        int[] goalone = new int[BOARD_SIZE  * BOARD_SIZE];
-
-        int counter = 0;
-        for (int[] start1 : start) {
+        int[] goalCell = new int[CELLS];
+        for (int i = 0; i < BOARD_SIZE; i++) {
             for (int j = 0; j < BOARD_SIZE; j++) {
-                startone[counter] = start1[j];
-                counter++;
-            }
-        }
-
-        counter = 0;
-        for (int[] goal1 : goal) {
-            for (int j = 0; j < goal.length; j++) {
-                goalone[counter] = goal1[j];
-                counter++;
+                goalCell[goal[i][j]] = i * BOARD_SIZE + j;
             }
         }
-
-        int inversions = 0;
-        for(int i = 0; i < BOARD_SIZE -1; i++) {
-            for(int j = i+1; j < BOARD_SIZE ; j++) {
-               int startnum1 = startone[i];
-               int startnum2 = startone[j];
-               int goalpos1 = -1;
-               int goalpos2 = -1;
-               if(startnum1 != 0 && startnum2 != 0) {
-                   for (int l = 0; l < BOARD_SIZE; l++) {
-                       if(startnum1 == goalone[l]) {
-                           goalpos1 = l;
-                       }
-                       else if(startnum2 == goalone[l]) {
-                           goalpos2 = l;
-                       }
-                   }
-                   if(!(goalpos2 > goalpos1)) {
-                        inversions++;
-                   }
-               }
+        int[] sequence = new int[CELLS - 1];
+        int counter = 0;
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                if (start[i][j] != 0) {
+                    sequence[counter++] = goalCell[start[i][j]];
+                }
             }
         }
-        
-        return inversions;
+        return (int) Solvability.inversions(sequence, CELLS);
     } 
 }
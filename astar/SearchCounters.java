@@ -0,0 +1,111 @@
+/*
+ * Running totals of every search reported to it, safe to share between solvers on many threads
+ * The totals can be scraped in the Prometheus text format
+ * 10/17/26
+ */
+package astar;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SearchCounters implements SearchListener {
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder expanded = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder duplicatesPruned = new LongAdder();
+    private final LongAdder reopened = new LongAdder();
+    private final LongAdder expansionNanos = new LongAdder();
+    private final LongAdder heuristicNanos = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+    private final AtomicLong peakOpen = new AtomicLong();
+    private final AtomicLong peakClosed = new AtomicLong();
+
+    @Override
+    public void searchFinished(SearchStats stats) {
+        searches.increment();
+        if (stats.isSolved()) {
+            solved.increment();
+        }
+        expanded.add(stats.getExpanded());
+        generated.add(stats.getGenerated());
+        duplicatesPruned.add(stats.getDuplicatesPruned());
+        reopened.add(stats.getReopened());
+        expansionNanos.add(stats.getExpansionNanos());
+        heuristicNanos.add(stats.getHeuristicNanos());
+        wallNanos.add(stats.getWallNanos());
+        peakOpen.accumulateAndGet(stats.getPeakOpen(), Math::max);
+        peakClosed.accumulateAndGet(stats.getPeakClosed(), Math::max);
+    }
+
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    public long getExpanded() {
+        return expanded.sum();
+    }
+
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    public long getDuplicatesPruned() {
+        return duplicatesPruned.sum();
+    }
+
+    public long getReopened() {
+        return reopened.sum();
+    }
+
+    /**
+     * @return the largest open list of any single search
+     */
+    public long getPeakOpen() {
+        return peakOpen.get();
+    }
+
+    /**
+     * @return the largest closed set of any single search
+     */
+    public long getPeakClosed() {
+        return peakClosed.get();
+    }
+
+    /**
+     * Formats the totals in the Prometheus text exposition format
+     * @return the metrics
+     */
+    public String toPrometheus() {
+        StringBuilder builder = new StringBuilder();
+        metric(builder, "astar_searches_total", "counter", "Searches run", searches.sum());
+        metric(builder, "astar_searches_solved_total", "counter", "Searches that found a solution", solved.sum());
+        metric(builder, "astar_nodes_expanded_total", "counter", "Nodes expanded", expanded.sum());
+        metric(builder, "astar_nodes_generated_total", "counter", "Nodes generated", generated.sum());
+        metric(builder, "astar_duplicates_pruned_total", "counter", "Duplicate nodes dropped", duplicatesPruned.sum());
+        metric(builder, "astar_nodes_reopened_total", "counter", "Expanded nodes expanded again", reopened.sum());
+        metric(builder, "astar_expansion_seconds_total", "counter", "Time spent generating successors",
+                expansionNanos.sum() / 1e9);
+        metric(builder, "astar_heuristic_seconds_total", "counter", "Time spent evaluating the heuristic",
+                heuristicNanos.sum() / 1e9);
+        metric(builder, "astar_wall_seconds_total", "counter", "Time spent searching", wallNanos.sum() / 1e9);
+        metric(builder, "astar_peak_open_nodes", "gauge", "Largest open list of a search", peakOpen.get());
+        metric(builder, "astar_peak_closed_nodes", "gauge", "Largest closed set of a search", peakClosed.get());
+        return builder.toString();
+    }
+
+    private static void metric(StringBuilder builder, String name, String type, String help, Number value) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * A JDK Flight Recorder event for each search, committed by SearchEvent.LISTENER
+ * Enable it in a recording with -XX:StartFlightRecording and the astar.Search event
+ * 10/17/26
+ */
+package astar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ *
+ * @author Joseph
+ */
+@Name("astar.Search")
+@Label("Search")
+@Category("AStar")
+@Description("Statistics of one search run by an AStarSolver")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    /* Commits an event for every search while the event is enabled in a recording */
+    public static final SearchListener LISTENER = (SearchStats stats) -> {
+        SearchEvent event = new SearchEvent();
+        if (event.isEnabled()) {
+            event.mode = stats.getMode();
+            event.solved = stats.isSolved();
+            event.solutionCost = stats.getSolutionCost();
+            event.expanded = stats.getExpanded();
+            event.generated = stats.getGenerated();
+            event.duplicatesPruned = stats.getDuplicatesPruned();
+            event.reopened = stats.getReopened();
+            event.peakOpen = stats.getPeakOpen();
+            event.peakClosed = stats.getPeakClosed();
+            event.expansionTime = stats.getExpansionNanos();
+            event.heuristicTime = stats.getHeuristicNanos();
+            event.wallTime = stats.getWallNanos();
+            event.commit();
+        }
+    };
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Solved")
+    boolean solved;
+
+    @Label("Solution Cost")
+    int solutionCost;
+
+    @Label("Nodes Expanded")
+    long expanded;
+
+    @Label("Nodes Generated")
+    long generated;
+
+    @Label("Duplicates Pruned")
+    long duplicatesPruned;
+
+    @Label("Nodes Reopened")
+    @Description("Expanded states expanded again after being reached more cheaply")
+    long reopened;
+
+    @Label("Peak Open List Size")
+    long peakOpen;
+
+    @Label("Peak Closed Set Size")
+    long peakClosed;
+
+    @Label("Expansion Time")
+    @Description("Time spent generating successors and evaluating their heuristic")
+    @Timespan(Timespan.NANOSECONDS)
+    long expansionTime;
+
+    @Label("Heuristic Time")
+    @Description("Time spent evaluating the heuristic of successors, part of the expansion time")
+    @Timespan(Timespan.NANOSECONDS)
+    long heuristicTime;
+
+    @Label("Wall Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wallTime;
+}
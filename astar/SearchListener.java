@@ -0,0 +1,34 @@
+/*
+ * Receives the statistics of every search run by an AStarSolver
+ * See SearchCounters for counters that can be scraped and SearchEvent for flight recorder events
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called on the searching thread when a search ends, whether or not it found a solution
+     * @param stats, the statistics of the search
+     */
+    void searchFinished(SearchStats stats);
+
+    /**
+     * Combines listeners so each receives every search
+     * @param listeners, the listeners to combine
+     * @return the combined listener
+     */
+    static SearchListener of(SearchListener... listeners) {
+        SearchListener[] copy = listeners.clone();
+        return (SearchStats stats) -> {
+            for (SearchListener listener : copy) {
+                listener.searchFinished(stats);
+            }
+        };
+    }
+}
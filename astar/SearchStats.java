@@ -0,0 +1,131 @@
+/*
+ * Statistics of a single search, passed to a SearchListener when the search ends
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SearchStats {
+
+    private final String mode;
+    long expanded = 0;
+    long generated = 0;
+    long duplicatesPruned = 0;
+    long reopened = 0;
+    long peakOpen = 0;
+    long peakClosed = 0;
+    long expansionNanos = 0;
+    long heuristicNanos = 0;
+    long wallNanos = 0;
+    boolean solved = false;
+    int solutionCost = -1;
+
+    /**
+     * @param mode, the name of the search mode, such as AStar or IDAStar
+     */
+    public SearchStats(String mode) {
+        this.mode = mode;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of nodes expanded, IDAStar counts a node again in every iteration
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * @return the number of states returned by calculateStates, or the moves made by IDAStar
+     */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * @return the number of queued nodes dropped because their state was already expanded or reached more cheaply
+     */
+    public long getDuplicatesPruned() {
+        return duplicatesPruned;
+    }
+
+    /**
+     * @return the number of expanded states expanded again after being reached more cheaply, only indexedAStar reopens
+     */
+    public long getReopened() {
+        return reopened;
+    }
+
+    /**
+     * @return the largest open list size, or the deepest path for IDAStar
+     */
+    public long getPeakOpen() {
+        return peakOpen;
+    }
+
+    /**
+     * @return the largest closed set size
+     */
+    public long getPeakClosed() {
+        return peakClosed;
+    }
+
+    /**
+     * @return the time spent generating successors and evaluating their heuristic in nanoseconds,
+     *         only measured while a listener is set
+     */
+    public long getExpansionNanos() {
+        return expansionNanos;
+    }
+
+    /**
+     * @return the time spent evaluating the heuristic of successors in nanoseconds, part of the expansion time,
+     *         only measured while a listener is set
+     */
+    public long getHeuristicNanos() {
+        return heuristicNanos;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * @return the path cost of the solution, or -1 if there is none
+     */
+    public int getSolutionCost() {
+        return solutionCost;
+    }
+
+    void openSize(int size) {
+        if (size > peakOpen) {
+            peakOpen = size;
+        }
+    }
+
+    void closedSize(int size) {
+        if (size > peakClosed) {
+            peakClosed = size;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return mode + " solved=" + solved + " cost=" + solutionCost + " expanded=" + expanded
+                + " generated=" + generated + " duplicates=" + duplicatesPruned + " reopened=" + reopened
+                + " peakOpen=" + peakOpen
+                + " peakClosed=" + peakClosed + " expansionMs=" + expansionNanos / 1_000_000
+                + " heuristicMs=" + heuristicNanos / 1_000_000
+                + " wallMs=" + wallNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Inherits the AStarSolver class to solve sliding puzzles of any shape chosen at runtime
+ * One solver serves boards of every size, the representation of each board is picked by SlidingState.of
+ * and the manhattan distance plus linear conflict is worked out from a table of the goal kept per goal.
+ * Pattern databases built for the goal's shape, such as the 6-6-3 partition of the 4x4 board, raise the estimate.
+ * Pairs are checked with Solvability before searching, IDAStar would otherwise never return on one.
+ * Boards of more than 16 cells can only be searched with IDAStar, the other searches need exact keys.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SlidingSolver extends InPlaceSolver<SlidingState> {
+
+    /* Boards with more cells than this are solved with IDAStar by solve, A* runs out of memory on them */
+    private static final int ASTAR_CELLS = 9;
+
+    /* Lines longer than this count no conflict, the goal places of a line are kept as bits of a long */
+    private static final int CONFLICT_LINE = Long.SIZE;
+
+    /* Pattern databases, used for goals they were built for */
+    private final AdditivePatternDatabase patterns;
+    /* The table of the last goal searched for */
+    private volatile Goal goalTable;
+
+    /*
+     *    The row and column of every tile in a goal
+     */
+    private static class Goal {
+
+        private final SlidingState goal;
+        private final int rows;
+        private final int cols;
+        private final int[] row;
+        private final int[] col;
+
+        private Goal(SlidingState goal) {
+            this.goal = goal.copy();
+            this.rows = goal.getRows();
+            this.cols = goal.getCols();
+            int cells = goal.cells();
+            this.row = new int[cells];
+            this.col = new int[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                row[goal.tileAt(cell)] = cell / cols;
+                col[goal.tileAt(cell)] = cell % cols;
+            }
+        }
+
+        /**
+         * @return the manhattan distance of a tile on a cell to its place in the goal
+         */
+        private int distance(int tile, int cell) {
+            return Math.abs(cell / cols - row[tile]) + Math.abs(cell % cols - col[tile]);
+        }
+
+        /**
+         * Calculates the manhattan distance plus the linear conflict of a state
+         */
+        private int estimate(SlidingState state) {
+            int h = 0;
+            for (int cell = 0; cell < state.cells(); cell++) {
+                int tile = state.tileAt(cell);
+                if (tile != 0) {
+                    h += distance(tile, cell);
+                }
+            }
+            for (int i = 0; i < rows; i++) {
+                h += rowConflict(state, i, -1, -1);
+            }
+            for (int j = 0; j < cols; j++) {
+                h += colConflict(state, j, -1, -1);
+            }
+            return h;
+        }
+
+        /**
+         * Calculates how much the estimate changed when a tile slid into the 0, see GoalTable.delta
+         * @param state, the state after the move
+         * @param from, the cell the tile is on after the move, where the 0 was
+         * @param to, the cell the tile was on before the move, where the 0 is now
+         * @return the estimate of the state minus the estimate before the move
+         */
+        private int delta(SlidingState state, int from, int to) {
+            int tile = state.tileAt(from);
+            int h = distance(tile, from) - distance(tile, to);
+            if (from / cols == to / cols) {
+                //a sideways move changes the tile's column
+                int a = from % cols;
+                int b = to % cols;
+                h += colConflict(state, a, -1, -1) + colConflict(state, b, -1, -1)
+                        - colConflict(state, a, from, to) - colConflict(state, b, from, to);
+            } else {
+                int a = from / cols;
+                int b = to / cols;
+                h += rowConflict(state, a, -1, -1) + rowConflict(state, b, -1, -1)
+                        - rowConflict(state, a, from, to) - rowConflict(state, b, from, to);
+            }
+            return h;
+        }
+
+        /**
+         * Calculates the conflict of a row, every tile in its goal row outside the longest run in goal
+         * order has to step out and back in
+         * @param swapA, a cell whose tile is read from swapB and the other way round, or -1 to read the state as it is
+         */
+        private int rowConflict(SlidingState state, int r, int swapA, int swapB) {
+            if (cols > CONFLICT_LINE) {
+                return 0;
+            }
+            long tails = 0;
+            int count = 0;
+            for (int j = 0; j < cols; j++) {
+                int tile = tileAt(state, r * cols + j, swapA, swapB);
+                if (tile != 0 && row[tile] == r) {
+                    count++;
+                    tails = GoalTable.extendRuns(tails, col[tile]);
+                }
+            }
+            return 2 * (count - Long.bitCount(tails));
+        }
+
+        /**
+         * Calculates the conflict of a column, see rowConflict
+         */
+        private int colConflict(SlidingState state, int c, int swapA, int swapB) {
+            if (rows > CONFLICT_LINE) {
+                return 0;
+            }
+            long tails = 0;
+            int count = 0;
+            for (int i = 0; i < rows; i++) {
+                int tile = tileAt(state, i * cols + c, swapA, swapB);
+                if (tile != 0 && col[tile] == c) {
+                    count++;
+                    tails = GoalTable.extendRuns(tails, row[tile]);
+                }
+            }
+            return 2 * (count - Long.bitCount(tails));
+        }
+
+        private static int tileAt(SlidingState state, int cell, int swapA, int swapB) {
+            return state.tileAt(cell == swapA ? swapB : cell == swapB ? swapA : cell);
+        }
+    }
+
+    public SlidingSolver() {
+        this(null);
+    }
+
+    /**
+     * @param patterns, pattern databases used to strengthen the heuristic, or null for none
+     */
+    public SlidingSolver(AdditivePatternDatabase patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Solves a pair of boards of any shape, choosing the search by size
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle of the same shape
+     * @return the shortest path, or null if the pair is not solvable
+     */
+    public static ArrayList<SlidingState> solve(int[][] initial, int[][] goal) {
+        if (!Solvability.isSolvable(initial, goal)) {
+            return null;
+        }
+        return new SlidingSolver().solve(SlidingState.of(initial), SlidingState.of(goal));
+    }
+
+    /**
+     * Solves a solvable pair of boards of any shape, AStar on small boards and IDAStar on larger ones
+     * @param initial, the initial state
+     * @param goal, the goal state of the same shape
+     * @return the shortest path, or null if the search was interrupted
+     */
+    public ArrayList<SlidingState> solve(SlidingState initial, SlidingState goal) {
+        if (initial.cells() <= ASTAR_CELLS) {
+            return AStar(initial, goal);
+        }
+        return IDAStar(initial, goal);
+    }
+
+    /**
+     * Returns whether two states are equal
+     * @param current, the current state
+     * @param goal, the goal state to be compared to
+     * @return true or false
+     */
+    @Override
+    public boolean isEqualTo(SlidingState current, SlidingState goal) {
+        return current.isEqualTo(goal);
+    }
+
+    /**
+     * Calculates the next possible states based off the current node and closed nodes
+     * @param pathCost, the pathCost of the current state
+     * @param current, the current state
+     * @param closedNodes, keys of the nodes already expanded
+     * @param goalNode, the goal node
+     * @return a list of states
+     */
+    @Override
+    public ArrayList<SlidingState> calculateStates(int pathCost, SlidingState current, LongHashSet closedNodes, SlidingState goalNode) {
+        ArrayList<SlidingState> list = new ArrayList<>();
+        expand(current, goalNode, Successors.into(closedNodes, list));
+        return list;
+    }
+
+    /**
+     * Pushes a copy of the current state for each way the 0 can move
+     * @param current, the current state
+     * @param goal, the goal state
+     * @param successors, receives the successors
+     */
+    @Override
+    protected void expand(SlidingState current, SlidingState goal, Successors<SlidingState> successors) {
+        int h = current.f - current.g;
+        for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+            SlidingState child = current.copy();
+            if (!child.move(move) || successors.isClosed(child.key())) {
+                continue;
+            }
+            child.setLastMove(move);
+            child.g = current.g + 1;
+            long started = successors.heuristicStarted();
+            child.f = child.g + estimateAfterMove(child, move, h, goal);
+            successors.heuristicFinished(started);
+            successors.add(child);
+        }
+    }
+
+    /**
+     * Only packed boards can be restored, the key of a wide board is a hash
+     */
+    @Override
+    protected void restoreState(SlidingState state, long key) {
+        requirePacked(state);
+        ((PackedSlidingState) state).setBoard(key);
+    }
+
+    /**
+     * Checks a board's key identifies it, every search but IDAStar tells states apart by their keys alone
+     * @param state, the board
+     * @throws UnsupportedOperationException if the board is wide, its key is a hash that another board may share
+     */
+    private static void requirePacked(SlidingState state) {
+        if (!(state instanceof PackedSlidingState)) {
+            throw new UnsupportedOperationException("Boards of more than " + SlidingState.PACKED_CELLS
+                    + " cells have hashed keys, only IDAStar can search them");
+        }
+    }
+
+    @Override
+    protected int moveCount() {
+        return PuzzleState.ACTIONS.length;
+    }
+
+    @Override
+    protected int applyMove(SlidingState state, int move) {
+        return state.move(move) ? 1 : -1;
+    }
+
+    @Override
+    protected void undoMove(SlidingState state, int move) {
+        state.move(PuzzleState.inverse(move));
+    }
+
+    @Override
+    protected int inverseMove(int move) {
+        return PuzzleState.inverse(move);
+    }
+
+    /**
+     * The manhattan distance plus linear conflict, or the pattern databases if they are built for the goal
+     * and estimate more, both are admissible so their maximum is too
+     */
+    @Override
+    protected int estimate(SlidingState state, SlidingState goal) {
+        int h = goalTable(goal).estimate(state);
+        if (patterns != null && patterns.isBuiltFor(goal)) {
+            h = Math.max(h, patterns.estimate(state));
+        }
+        return h;
+    }
+
+    /**
+     * Only the tile that moved changes its distance, and only the lines it leaves and enters their conflict,
+     * it now sits on the 0's old cell. With pattern databases the state is estimated again.
+     */
+    @Override
+    protected int estimateAfterMove(SlidingState state, int move, int h, SlidingState goal) {
+        if (patterns != null && patterns.isBuiltFor(goal)) {
+            return estimate(state, goal);
+        }
+        int from = state.target(PuzzleState.inverse(move));
+        return h + goalTable(goal).delta(state, from, state.getBlank());
+    }
+
+    /**
+     * Every search that calls this keeps states by their keys, so wide boards are turned away here
+     */
+    @Override
+    protected void initialize(SlidingState initial, SlidingState goal) {
+        requirePacked(initial);
+        initial.g = 0;
+        initial.f = estimate(initial, goal);
+    }
+
+    @Override
+    protected SlidingState copyState(SlidingState state, int move) {
+        SlidingState copy = state.copy();
+        copy.setLastMove(move);
+        return copy;
+    }
+
+    @Override
+    protected void orient(SlidingState previous, SlidingState state) {
+        for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+            if (previous.target(move) == state.getBlank()) {
+                state.setLastMove(move);
+                return;
+            }
+        }
+        state.setLastMove(-1);
+    }
+
+    /**
+     * Gets the table of a goal, building it if the goal differs from the last one
+     * @param goal, the goal state
+     * @return the table
+     */
+    private Goal goalTable(SlidingState goal) {
+        Goal table = goalTable;
+        if (table == null || !table.goal.isEqualTo(goal)) {
+            table = new Goal(goal);
+            goalTable = table;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * A sliding puzzle board whose shape is chosen at runtime, any number of rows and columns
+ * Unlike PuzzleState, whose size is fixed when compiled, boards of different shapes can be solved side by side.
+ * of() picks the representation for the size, PackedSlidingState keeps boards of up to 16 cells in one long
+ * and WideSlidingState packs larger boards into several.
+ * Only packed boards have keys that tell every board apart. A wide board's key is a Zobrist hash, so two boards
+ * may share one and SlidingSolver only searches them with IDAStar, which compares no keys.
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public abstract class SlidingState extends AStarSolver.AIState {
+
+    /* The most cells a board packed into one long can have, 4 bits per tile */
+    public static final int PACKED_CELLS = 16;
+
+    protected final int rows;
+    protected final int cols;
+    /* The cell of the 0, only changed by move() */
+    protected int blank;
+    /* The direction the 0 moved to reach this state, or -1 for none */
+    private int lastMove = -1;
+
+    /**
+     * @param rows, the number of rows
+     * @param cols, the number of columns
+     * @param blank, the cell of the 0
+     */
+    protected SlidingState(int rows, int cols, int blank) {
+        this.rows = rows;
+        this.cols = cols;
+        this.blank = blank;
+    }
+
+    /**
+     * Creates the state of a board in the representation suited to its size, see the class comment for the
+     * searches boards of more than PACKED_CELLS cells are limited to
+     * @param puzzle, the rows of the board, all of the same length, holding the tiles 0 to rows * cols - 1
+     * @return the state
+     */
+    public static SlidingState of(int[][] puzzle) {
+        int rows = puzzle.length;
+        int cols = rows == 0 ? 0 : puzzle[0].length;
+        if (rows == 0 || cols == 0) {
+            throw new IllegalArgumentException("A board needs at least one cell");
+        }
+        int cells = rows * cols;
+        int[] tiles = new int[cells];
+        boolean[] seen = new boolean[cells];
+        for (int i = 0; i < rows; i++) {
+            if (puzzle[i].length != cols) {
+                throw new IllegalArgumentException("Row " + i + " has " + puzzle[i].length + " cells, expected " + cols);
+            }
+            for (int j = 0; j < cols; j++) {
+                int tile = puzzle[i][j];
+                if (tile < 0 || tile >= cells || seen[tile]) {
+                    throw new IllegalArgumentException("Tile " + tile + " is out of range or repeated");
+                }
+                seen[tile] = true;
+                tiles[i * cols + j] = tile;
+            }
+        }
+        if (cells <= PACKED_CELLS) {
+            return new PackedSlidingState(rows, cols, tiles);
+        }
+        return new WideSlidingState(rows, cols, tiles);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int cells() {
+        return rows * cols;
+    }
+
+    /**
+     * @return the cell of the 0, row * cols + col
+     */
+    public int getBlank() {
+        return blank;
+    }
+
+    /**
+     * @param cell, the cell, row * cols + col
+     * @return the tile on the cell
+     */
+    public abstract int tileAt(int cell);
+
+    public int tileAt(int row, int col) {
+        return tileAt(row * cols + col);
+    }
+
+    /**
+     * @return the action taken to reach this state, one of PuzzleState.ACTIONS, or "" for none
+     */
+    public String getAction() {
+        return lastMove < 0 ? "" : PuzzleState.ACTIONS[lastMove];
+    }
+
+    /**
+     * @return the direction the 0 moved to reach this state, or -1 for none
+     */
+    public int getLastMove() {
+        return lastMove;
+    }
+
+    void setLastMove(int move) {
+        this.lastMove = move;
+    }
+
+    /**
+     * Finds the cell the 0 moves to in a direction
+     * @param direction, one of PuzzleState.UP, DOWN, LEFT or RIGHT
+     * @return the cell, or -1 if the 0 is against that edge
+     */
+    public int target(int direction) {
+        int row = blank / cols;
+        int col = blank % cols;
+        switch (direction) {
+            case PuzzleState.UP:
+                return row > 0 ? blank - cols : -1;
+            case PuzzleState.DOWN:
+                return row < rows - 1 ? blank + cols : -1;
+            case PuzzleState.LEFT:
+                return col > 0 ? blank - 1 : -1;
+            case PuzzleState.RIGHT:
+                return col < cols - 1 ? blank + 1 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Moves the 0 in place
+     * @param direction, one of PuzzleState.UP, DOWN, LEFT or RIGHT
+     * @return true if the move was made, false if the 0 is against that edge
+     */
+    public boolean move(int direction) {
+        int to = target(direction);
+        if (to < 0) {
+            return false;
+        }
+        slide(to);
+        blank = to;
+        return true;
+    }
+
+    /**
+     * Moves the tile on a cell next to the 0 into the 0's cell, the 0 is moved to it by move()
+     * @param from, the cell of the tile
+     */
+    protected abstract void slide(int from);
+
+    /**
+     * @return a copy with the same board, path cost, heuristic and action
+     */
+    public abstract SlidingState copy();
+
+    /**
+     * Copies the path cost, heuristic and action of this state to a copy of it
+     * @param copy, the copy
+     * @return the copy
+     */
+    protected SlidingState copyInto(SlidingState copy) {
+        copy.g = g;
+        copy.f = f;
+        copy.lastMove = lastMove;
+        return copy;
+    }
+
+    /**
+     * @param other, the state to compare to
+     * @return true if both boards have the same shape and tiles
+     */
+    public abstract boolean isEqualTo(SlidingState other);
+
+    /**
+     * @return the board as rows
+     */
+    public int[][] toArray() {
+        int[][] puzzle = new int[rows][cols];
+        for (int cell = 0; cell < rows * cols; cell++) {
+            puzzle[cell / cols][cell % cols] = tileAt(cell);
+        }
+        return puzzle;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof SlidingState && isEqualTo((SlidingState) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            builder.append('{');
+            for (int j = 0; j < cols; j++) {
+                builder.append(tileAt(i, j)).append(',');
+            }
+            builder.append("}\n");
+        }
+        return builder.toString();
+    }
+}
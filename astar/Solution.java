@@ -0,0 +1,244 @@
+/*
+ * A puzzle solution kept as the initial board and its moves, 2 bits per move
+ * Boards along the path are only built when they are asked for, one at a time when iterating,
+ * so a long solution takes a few bytes per 32 moves instead of a board object per step.
+ * A solution may be of a board of any shape, only those of PuzzleState's size can be replayed as PuzzleStates.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ *
+ * @author Joseph
+ */
+public class Solution implements Iterable<PuzzleState> {
+
+    private static final int MOVES_PER_WORD = Long.SIZE / 2;
+    private static final char[] LETTERS = {'U', 'D', 'L', 'R'};
+
+    /* The initial board in any shape, and as a PuzzleState if it has PuzzleState's size or else null */
+    private final SlidingState board;
+    private final PuzzleState initial;
+    private final long[] words;
+    private final int length;
+
+    /**
+     * @param initial, the state the solution starts from
+     * @param moves, the directions the 0 moves in, each one of PuzzleState.UP, DOWN, LEFT or RIGHT
+     * @param count, the number of moves
+     */
+    public Solution(PuzzleState initial, int[] moves, int count) {
+        this(SlidingState.of(initial.getPuzzle()), initial, moves, count);
+    }
+
+    /**
+     * @param initial, the board of any shape the solution starts from
+     * @param moves, the directions the 0 moves in, each one of PuzzleState.UP, DOWN, LEFT or RIGHT
+     * @param count, the number of moves
+     */
+    public Solution(SlidingState initial, int[] moves, int count) {
+        this(initial, isPuzzleSize(initial) ? new PuzzleState(initial.toArray()) : null, moves, count);
+    }
+
+    private Solution(SlidingState board, PuzzleState initial, int[] moves, int count) {
+        this.board = board.copy();
+        this.initial = initial == null ? null : initial.copy();
+        if (this.initial != null) {
+            this.initial.setAction("");
+        }
+        this.length = count;
+        this.words = new long[(count + MOVES_PER_WORD - 1) / MOVES_PER_WORD];
+        for (int i = 0; i < count; i++) {
+            if (moves[i] < 0 || moves[i] >= LETTERS.length) {
+                throw new IllegalArgumentException("Unknown move " + moves[i]);
+            }
+            words[i / MOVES_PER_WORD] |= (long) moves[i] << ((i % MOVES_PER_WORD) << 1);
+        }
+    }
+
+    /**
+     * Compacts a path of states
+     * @param path, the path, each state one move from the one before it
+     * @return the solution, or null if the path is null
+     */
+    public static Solution of(List<PuzzleState> path) {
+        if (path == null) {
+            return null;
+        }
+        int[] moves = new int[path.size() - 1];
+        for (int i = 1; i < path.size(); i++) {
+            moves[i - 1] = PuzzleState.direction(path.get(i - 1), path.get(i));
+        }
+        return new Solution(path.get(0), moves, moves.length);
+    }
+
+    /**
+     * Compacts a path of boards of any shape
+     * @param path, the path, each board one move from the one before it
+     * @return the solution, or null if the path is null
+     */
+    public static Solution ofBoards(List<SlidingState> path) {
+        if (path == null) {
+            return null;
+        }
+        int[] moves = new int[path.size() - 1];
+        for (int i = 1; i < path.size(); i++) {
+            moves[i - 1] = direction(path.get(i - 1), path.get(i));
+        }
+        return new Solution(path.get(0), moves, moves.length);
+    }
+
+    private static int direction(SlidingState from, SlidingState to) {
+        for (int direction = 0; direction < LETTERS.length; direction++) {
+            if (from.target(direction) == to.getBlank()) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("The boards are not one move apart");
+    }
+
+    private static boolean isPuzzleSize(SlidingState board) {
+        return board.getRows() == PuzzleState.BOARD_SIZE && board.getCols() == PuzzleState.BOARD_SIZE;
+    }
+
+    /**
+     * @return the initial state
+     * @throws IllegalStateException if the board is not of PuzzleState's size, see getBoard
+     */
+    public PuzzleState getInitial() {
+        return puzzle().copy();
+    }
+
+    /**
+     * @return the initial board, of any shape
+     */
+    public SlidingState getBoard() {
+        return board.copy();
+    }
+
+    private PuzzleState puzzle() {
+        if (initial == null) {
+            throw new IllegalStateException("A " + board.getRows() + "x" + board.getCols()
+                    + " solution cannot be replayed as PuzzleStates");
+        }
+        return initial;
+    }
+
+    /**
+     * @return the number of moves
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param i, the index of the move
+     * @return the direction the 0 moves in, one of PuzzleState.UP, DOWN, LEFT or RIGHT
+     */
+    public int move(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Move " + i + " of " + length);
+        }
+        return (int) (words[i / MOVES_PER_WORD] >>> ((i % MOVES_PER_WORD) << 1)) & 3;
+    }
+
+    /**
+     * @return the moves in order
+     */
+    public IntStream moves() {
+        return IntStream.range(0, length).map(this::move);
+    }
+
+    /**
+     * Builds the state after a number of moves by replaying them from the initial state
+     * @param i, the number of moves, from 0 to length()
+     * @return the state, its g is i and its f is the cost of the whole solution
+     * @throws IllegalStateException if the board is not of PuzzleState's size
+     */
+    public PuzzleState stateAt(int i) {
+        if (i < 0 || i > length) {
+            throw new IndexOutOfBoundsException("State " + i + " of " + length);
+        }
+        PuzzleState state = puzzle().copy();
+        for (int j = 0; j < i; j++) {
+            state.move(move(j));
+        }
+        state.setAction(i == 0 ? "" : PuzzleState.ACTIONS[move(i - 1)]);
+        state.g = i;
+        state.f = length;
+        return state;
+    }
+
+    /**
+     * Iterates over the states of the solution, each state is built as it is reached
+     * Only solutions of boards of PuzzleState's size can be iterated, see stateAt
+     * @return the iterator
+     */
+    @Override
+    public Iterator<PuzzleState> iterator() {
+        return new Iterator<PuzzleState>() {
+            private PuzzleState current = null;
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next <= length;
+            }
+
+            @Override
+            public PuzzleState next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (current == null) {
+                    current = stateAt(0);
+                } else {
+                    int direction = move(next - 1);
+                    current = current.copy();
+                    current.move(direction);
+                    current.setAction(PuzzleState.ACTIONS[direction]);
+                    current.g = next;
+                    current.f = length;
+                }
+                next++;
+                return current;
+            }
+        };
+    }
+
+    /**
+     * @return the states of the solution in order, each state is built as it is reached
+     */
+    public Stream<PuzzleState> states() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return every state of the solution
+     */
+    public ArrayList<PuzzleState> toList() {
+        ArrayList<PuzzleState> list = new ArrayList<>(length + 1);
+        forEach(list::add);
+        return list;
+    }
+
+    /**
+     * @return the moves as letters, U, D, L or R for each direction the 0 moves in
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(LETTERS[move(i)]);
+        }
+        return builder.toString();
+    }
+}
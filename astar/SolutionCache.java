@@ -0,0 +1,259 @@
+/*
+ * A bounded cache of puzzle solutions, safe to share between threads
+ * A pair of puzzles is cached under a canonical form: the tiles are relabelled so the goal reads 1, 2, 3 and
+ * so on around the 0, and of the 8 rotations and reflections of the board the one with the smallest form is used.
+ * Relabelling does not change how the 0 moves and a symmetry only turns its moves, so every pair with the same
+ * form is solved by the same moves up to that turn. Solutions are stored as moves and replayed on a hit.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SolutionCache {
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    private static final int SYMMETRIES = 8;
+    /* The cell each cell moves to under each symmetry */
+    private static final int[][] CELL_MAP = new int[SYMMETRIES][CELLS];
+    /* The direction each direction of the 0 turns into under each symmetry, and back */
+    private static final int[][] DIRECTION_MAP = new int[SYMMETRIES][4];
+    private static final int[][] DIRECTION_UNMAP = new int[SYMMETRIES][4];
+    /* Marks a pair without a solution, compared by identity since an empty solution is valid */
+    private static final byte[] UNSOLVABLE = new byte[0];
+
+    static {
+        int[] rowStep = {-1, 1, 0, 0};
+        int[] colStep = {0, 0, -1, 1};
+        for (int t = 0; t < SYMMETRIES; t++) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                CELL_MAP[t][cell] = transform(t, cell);
+            }
+            for (int d = 0; d < 4; d++) {
+                //any cell and its neighbour in the direction will do, the turn is the same everywhere
+                int from = Math.max(0, -rowStep[d]) * SIZE + Math.max(0, -colStep[d]);
+                int to = from + rowStep[d] * SIZE + colStep[d];
+                int rows = CELL_MAP[t][to] / SIZE - CELL_MAP[t][from] / SIZE;
+                int cols = CELL_MAP[t][to] % SIZE - CELL_MAP[t][from] % SIZE;
+                for (int turned = 0; turned < 4; turned++) {
+                    if (rowStep[turned] == rows && colStep[turned] == cols) {
+                        DIRECTION_MAP[t][d] = turned;
+                        DIRECTION_UNMAP[t][turned] = d;
+                    }
+                }
+            }
+        }
+    }
+
+    private final Map<Key, byte[]> solutions;
+    private final Supplier<? extends PuzzleSolver> solvers;
+    private final BatchSolver.Search<PuzzleState, ? super PuzzleSolver> search;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /*
+     *    The canonical form of a pair, the relabelled initial board and the cell of the 0 in the relabelled goal
+     */
+    private static final class Key {
+
+        private final long board;
+        private final int blank;
+
+        private Key(long board, int blank) {
+            this.board = board;
+            this.blank = blank;
+        }
+
+        private int compareTo(Key other) {
+            return blank != other.blank ? Integer.compare(blank, other.blank) : Long.compareUnsigned(board, other.board);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).board == board && ((Key) other).blank == blank;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) LongHashSet.mix(board ^ blank);
+        }
+    }
+
+    /**
+     * Solves misses with AStar
+     * @param capacity, the most solutions kept, the least recently used is evicted first
+     */
+    public SolutionCache(int capacity) {
+        this(capacity, PuzzleSolver::new, AStarSolver::AStar);
+    }
+
+    /**
+     * @param capacity, the most solutions kept, the least recently used is evicted first
+     * @param solvers, creates a solver for each call, called from many threads
+     * @param search, the search mode run on a miss, it must find shortest paths for the symmetries to hold
+     */
+    public SolutionCache(int capacity, Supplier<? extends PuzzleSolver> solvers,
+            BatchSolver.Search<PuzzleState, ? super PuzzleSolver> search) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1");
+        }
+        this.solvers = solvers;
+        this.search = search;
+        this.solutions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                if (size() > capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Finds the shortest path between two puzzles, from the cache if an equivalent pair was solved before
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return the solution as a list of PuzzleStates, or null if there is none or the thread was interrupted
+     */
+    public ArrayList<PuzzleState> solve(int[][] initial, int[][] goal) {
+        PuzzleState start = new PuzzleState(initial);
+        PuzzleState end = new PuzzleState(goal);
+        int symmetry = 0;
+        Key key = null;
+        for (int t = 0; t < SYMMETRIES; t++) {
+            Key candidate = canonical(start.getBoard(), end.getBoard(), t);
+            if (key == null || candidate.compareTo(key) < 0) {
+                key = candidate;
+                symmetry = t;
+            }
+        }
+        byte[] moves;
+        synchronized (solutions) {
+            moves = solutions.get(key);
+        }
+        PuzzleSolver solver = solvers.get();
+        if (moves != null) {
+            hits.increment();
+            if (moves == UNSOLVABLE) {
+                return null;
+            }
+            int[] original = new int[moves.length];
+            for (int i = 0; i < moves.length; i++) {
+                original[i] = DIRECTION_UNMAP[symmetry][moves[i]];
+            }
+            return solver.replay(start, end, original, original.length);
+        }
+        misses.increment();
+        ArrayList<PuzzleState> path = search.solve(solver, start, end);
+        if (path == null && Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        moves = path == null ? UNSOLVABLE : new byte[path.size() - 1];
+        for (int i = 1; path != null && i < path.size(); i++) {
+            moves[i - 1] = (byte) DIRECTION_MAP[symmetry][PuzzleState.direction(path.get(i - 1), path.get(i))];
+        }
+        synchronized (solutions) {
+            solutions.put(key, moves);
+        }
+        return path;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the share of calls answered from the cache, 0 before the first call
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (solutions) {
+            return solutions.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (solutions) {
+            solutions.clear();
+        }
+    }
+
+    /**
+     * Turns both boards by a symmetry and relabels the tiles so the goal reads 1, 2, 3 and so on in cell order
+     */
+    private static Key canonical(long initial, long goal, int t) {
+        long turnedGoal = 0;
+        long turnedInitial = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            turnedGoal |= (long) tile(goal, cell) << (CELL_MAP[t][cell] << 2);
+            turnedInitial |= (long) tile(initial, cell) << (CELL_MAP[t][cell] << 2);
+        }
+        int[] label = new int[CELLS];
+        int next = 1;
+        int blank = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int tile = tile(turnedGoal, cell);
+            if (tile == 0) {
+                blank = cell;
+            } else if (tile < CELLS) {
+                label[tile] = next++;
+            }
+        }
+        long board = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int tile = tile(turnedInitial, cell);
+            board |= (long) (tile < CELLS ? label[tile] : tile) << (cell << 2);
+        }
+        return new Key(board, blank);
+    }
+
+    /**
+     * Finds where a cell goes under a symmetry, bit 0 flips the rows, bit 1 flips the columns
+     * and bit 2 swaps rows with columns, which gives all 8 rotations and reflections of a square
+     */
+    private static int transform(int t, int cell) {
+        int row = cell / SIZE;
+        int col = cell % SIZE;
+        if ((t & 4) != 0) {
+            int swap = row;
+            row = col;
+            col = swap;
+        }
+        if ((t & 1) != 0) {
+            row = SIZE - 1 - row;
+        }
+        if ((t & 2) != 0) {
+            col = SIZE - 1 - col;
+        }
+        return row * SIZE + col;
+    }
+
+    private static int tile(long board, int cell) {
+        return (int) ((board >>> (cell << 2)) & 0xF);
+    }
+}
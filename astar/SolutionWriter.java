@@ -0,0 +1,102 @@
+/*
+ * Writes solutions through one buffer instead of a console call per character
+ * Boards are formatted into a reused StringBuilder and the buffer is only flushed when it fills or is asked to
+ * 10/17/26
+ */
+package astar;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SolutionWriter implements Closeable, Flushable {
+
+    private static final int BUFFER = 1 << 16;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * @param out, the stream to write to, closed when the writer is closed
+     */
+    public SolutionWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param out, the writer to write to, closed when the writer is closed
+     */
+    public SolutionWriter(Writer out) {
+        this.out = new BufferedWriter(out, BUFFER);
+    }
+
+    /**
+     * Writes the moves of a solution on one line as letters, see Solution.toString
+     * @param solution, the solution
+     * @throws IOException if writing fails
+     */
+    public void writeMoves(Solution solution) throws IOException {
+        line.setLength(0);
+        line.append(solution).append('\n');
+        out.append(line);
+    }
+
+    /**
+     * Writes every state of a solution as its action followed by its board and a blank line,
+     * the format PuzzleSolver.main prints
+     * @param solution, the solution
+     * @throws IOException if writing fails
+     */
+    public void writeStates(Solution solution) throws IOException {
+        for (PuzzleState state : solution) {
+            writeState(state);
+        }
+    }
+
+    /**
+     * Writes a state as its action followed by its board and a blank line
+     * @param state, the state
+     * @throws IOException if writing fails
+     */
+    public void writeState(PuzzleState state) throws IOException {
+        line.setLength(0);
+        line.append(state.getAction()).append('\n');
+        for (int i = 0; i < PuzzleState.BOARD_SIZE; i++) {
+            line.append('{');
+            for (int j = 0; j < PuzzleState.BOARD_SIZE; j++) {
+                line.append(state.tileAt(i, j)).append(',');
+            }
+            line.append("}\n");
+        }
+        line.append('\n');
+        out.append(line);
+    }
+
+    /**
+     * Writes a line of text
+     * @param text, the text
+     * @throws IOException if writing fails
+     */
+    public void writeLine(String text) throws IOException {
+        out.append(text).append('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Decides whether a sliding puzzle pair is solvable before any search runs, for boards of any shape
+ * The start's tiles are read in cell order and replaced by their cells in the goal, no move changes the
+ * parity of the inversions of that sequence on a board of odd width, and on a board of even width
+ * a vertical move flips it while moving the 0 one row. Inversions are counted with a Fenwick tree
+ * in O(n log n) rather than by comparing every pair.
+ * 10/17/26
+ */
+package astar;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Solvability {
+
+    private Solvability() {
+    }
+
+    /**
+     * Checks if a pair is solvable, rejecting pairs of different shapes or that are not both
+     * made of the tiles 0 to rows * cols - 1
+     * @param start, the initial puzzle
+     * @param goal, the goal puzzle
+     * @return true or false
+     */
+    public static boolean isSolvable(int[][] start, int[][] goal) {
+        int rows = start.length;
+        int cols = rows == 0 ? 0 : start[0].length;
+        if (rows == 0 || cols == 0 || goal.length != rows) {
+            return false;
+        }
+        int cells = rows * cols;
+        int[] goalCell = new int[cells];
+        if (!cellsOf(goal, cols, goalCell)) {
+            return false;
+        }
+        int[] startCell = new int[cells];
+        if (!cellsOf(start, cols, startCell)) {
+            return false;
+        }
+        //the goal cell of each tile of the start but the 0, in the order the start holds them
+        int[] sequence = new int[cells - 1];
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (start[i][j] != 0) {
+                    sequence[count++] = goalCell[start[i][j]];
+                }
+            }
+        }
+        long inversions = inversions(sequence, cells);
+        if (rows == 1 || cols == 1) {
+            //tiles on a single line can never pass each other
+            return inversions == 0;
+        }
+        if (cols % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        int rowsApart = Math.abs(startCell[0] / cols - goalCell[0] / cols);
+        return (inversions + rowsApart) % 2 == 0;
+    }
+
+    /**
+     * Counts the pairs of a sequence that are out of order
+     * @param sequence, distinct values from 0 to bound - 1
+     * @param bound, a value above every value of the sequence
+     * @return the number of inversions
+     */
+    public static long inversions(int[] sequence, int bound) {
+        //counts of the values seen so far, 1 indexed
+        int[] tree = new int[bound + 1];
+        long inversions = 0;
+        for (int i = sequence.length - 1; i >= 0; i--) {
+            //values to the right of i that are smaller than it
+            for (int k = sequence[i]; k > 0; k -= k & -k) {
+                inversions += tree[k];
+            }
+            for (int k = sequence[i] + 1; k <= bound; k += k & -k) {
+                tree[k]++;
+            }
+        }
+        return inversions;
+    }
+
+    /**
+     * Finds the cell of each tile, checking every tile appears once
+     * @return false if a row has the wrong length or a tile is missing, repeated or out of range
+     */
+    private static boolean cellsOf(int[][] puzzle, int cols, int[] cellOf) {
+        boolean[] seen = new boolean[cellOf.length];
+        for (int i = 0; i < puzzle.length; i++) {
+            if (puzzle[i].length != cols) {
+                return false;
+            }
+            for (int j = 0; j < cols; j++) {
+                int tile = puzzle[i][j];
+                if (tile < 0 || tile >= cellOf.length || seen[tile]) {
+                    return false;
+                }
+                seen[tile] = true;
+                cellOf[tile] = i * cols + j;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * A long running local service that solves puzzles over HTTP, so each solve skips JVM startup and warm up
+ * Searches run on a fixed pool of workers fed by a bounded queue, a request that finds the queue full is
+ * turned away at once rather than waiting. Requests for a pair that is already being searched wait on that
+ * search instead of starting another, and every request carries a deadline after which it gives up.
+ * HTTP handlers never wait on a search, each exchange is answered from the search's future when it completes.
+ * Boards of any shape are served. Those of PuzzleState's size are solved by PuzzleSolver or the distance table,
+ * others by SlidingSolver, and the pattern databases are used by whichever solver they were built for.
+ * 10/17/26
+ */
+package astar;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author Joseph
+ */
+public class SolveService implements AutoCloseable {
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService watchdog;
+    /* The search running or queued for each pair */
+    private final ConcurrentHashMap<Pair, Flight> inFlight = new ConcurrentHashMap<>();
+    /* Pattern databases and a distance table loaded up front, each used when built for a request's goal */
+    private final AdditivePatternDatabase patterns;
+    private final DistanceTable table;
+    private final SearchCounters counters = new SearchCounters();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private HttpServer server;
+    private ExecutorService handlers;
+
+    /*
+     *    An initial and goal board, the key requests are coalesced by. Boards are compared whole since
+     *    the key of a wide board is only a hash.
+     */
+    private static class Pair {
+
+        private final SlidingState initial;
+        private final SlidingState goal;
+
+        private Pair(SlidingState initial, SlidingState goal) {
+            this.initial = initial;
+            this.goal = goal;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Pair && ((Pair) obj).initial.isEqualTo(initial) && ((Pair) obj).goal.isEqualTo(goal);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(LongHashSet.mix(initial.key() * 31 + goal.key()));
+        }
+    }
+
+    /*
+     *    One search shared by every request for its pair. It may run until the latest deadline of those
+     *    requests, a request that joins later pushes the deadline back. The watchdog interrupts the worker
+     *    at most once and only while the search is running, so the interrupt never reaches the next search.
+     */
+    private class Flight implements Runnable {
+
+        private final Pair pair;
+        private final CompletableFuture<Solution> result = new CompletableFuture<>();
+        private long deadline;
+        private Thread thread = null;
+        private boolean finished = false;
+        private boolean fired = false;
+
+        private Flight(Pair pair, long deadline) {
+            this.pair = pair;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Pushes the deadline back for a request joining the search
+         * @param later, the deadline of the request
+         * @return false if the search is already over or was interrupted, the request needs a search of its own
+         */
+        private synchronized boolean extend(long later) {
+            if (fired || finished) {
+                return false;
+            }
+            if (later - deadline > 0) {
+                deadline = later;
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (System.nanoTime() - deadline >= 0) {
+                    finished = true;
+                }
+                thread = Thread.currentThread();
+            }
+            try {
+                if (finished) {
+                    timedOut.increment();
+                    complete(null, new TimeoutException("The deadline passed while the request was queued"));
+                    return;
+                }
+                schedule();
+                Solution solution = search(pair.initial, pair.goal);
+                if (finish()) {
+                    timedOut.increment();
+                    complete(null, new TimeoutException("The search ran past the deadline"));
+                } else {
+                    complete(solution, null);
+                }
+            } catch (RuntimeException | Error e) {
+                finish();
+                complete(null, e);
+            }
+        }
+
+        private synchronized void schedule() {
+            watchdog.schedule(this::fire, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void fire() {
+            if (finished) {
+                return;
+            }
+            if (System.nanoTime() - deadline < 0) {
+                //a later request pushed the deadline back
+                schedule();
+                return;
+            }
+            fired = true;
+            thread.interrupt();
+        }
+
+        /**
+         * Ends the watch and clears the interrupt it may have raised
+         * @return true if the deadline passed
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            if (fired) {
+                Thread.interrupted();
+            }
+            return fired;
+        }
+
+        private void complete(Solution solution, Throwable error) {
+            //new requests start a new search from here on
+            inFlight.remove(pair, this);
+            if (error == null) {
+                result.complete(solution);
+            } else {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * @param threads, the number of searches run at once
+     * @param queueCapacity, the number of searches that may wait for a worker before requests are rejected
+     * @param patterns, pattern databases to preload, or null for none
+     * @param table, a distance table to preload, or null for none
+     */
+    public SolveService(int threads, int queueCapacity, AdditivePatternDatabase patterns, DistanceTable table) {
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "astar-solve-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "astar-solve-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.patterns = patterns;
+        this.table = table;
+    }
+
+    /**
+     * Solves a pair, sharing the search with any request for the same pair still running
+     * @param initial, the initial puzzle
+     * @param goal, the goal puzzle
+     * @param timeout, the longest to wait for the solution
+     * @param unit, the unit of the timeout
+     * @return a future of the shortest solution, or of null if the pair is not solvable. It fails with a
+     *         TimeoutException once the deadline passes.
+     * @throws RejectedExecutionException if the queue is full
+     * @throws IllegalArgumentException if a puzzle is not made of the tiles 0 to rows * cols - 1 or the two differ in shape
+     */
+    public CompletableFuture<Solution> submit(int[][] initial, int[][] goal, long timeout, TimeUnit unit) {
+        SlidingState start = SlidingState.of(initial);
+        SlidingState end = SlidingState.of(goal);
+        if (start.getRows() != end.getRows() || start.getCols() != end.getCols()) {
+            throw new IllegalArgumentException("The initial and goal puzzles differ in shape");
+        }
+        if (!Solvability.isSolvable(initial, goal)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Pair pair = new Pair(start, end);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Flight flight = new Flight(pair, deadline);
+        while (true) {
+            Flight running = inFlight.putIfAbsent(pair, flight);
+            if (running == null) {
+                break;
+            }
+            if (running.extend(deadline)) {
+                coalesced.increment();
+                return running.result;
+            }
+            //the running search timed out or is finishing, take its place rather than share its result
+            if (inFlight.replace(pair, running, flight)) {
+                break;
+            }
+        }
+        try {
+            workers.execute(flight);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            //requests that joined meanwhile are rejected with it
+            inFlight.remove(pair, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        return flight.result;
+    }
+
+    /**
+     * Solves a pair with the preloaded tables, on the calling thread
+     */
+    private Solution search(SlidingState initial, SlidingState goal) {
+        if (initial.getRows() != PuzzleState.BOARD_SIZE || initial.getCols() != PuzzleState.BOARD_SIZE) {
+            SlidingSolver solver = new SlidingSolver(patterns);
+            solver.setSearchListener(counters);
+            return Solution.ofBoards(solver.solve(initial, goal));
+        }
+        PuzzleState start = new PuzzleState(initial.toArray());
+        PuzzleState end = new PuzzleState(goal.toArray());
+        if (table != null && table.isBuiltFor(end)) {
+            return Solution.of(table.solve(start));
+        }
+        PuzzleSolver solver = new PuzzleSolver(patterns);
+        solver.setSearchListener(counters);
+        return Solution.of(solver.AStar(start, end));
+    }
+
+    /**
+     * Solves random pairs on the calling thread so the search code is compiled before the first request
+     * @param searches, the number of pairs to solve
+     */
+    public void warmUp(int searches) {
+        Random random = new Random(42);
+        int cells = PuzzleState.BOARD_SIZE * PuzzleState.BOARD_SIZE;
+        int[][] goal = new int[PuzzleState.BOARD_SIZE][PuzzleState.BOARD_SIZE];
+        for (int cell = 0; cell < cells; cell++) {
+            goal[cell / PuzzleState.BOARD_SIZE][cell % PuzzleState.BOARD_SIZE] = (cell + 1) % cells;
+        }
+        for (int i = 0; i < searches; i++) {
+            PuzzleState initial = new PuzzleState(goal);
+            for (int move = 0; move < 100; move++) {
+                initial.move(random.nextInt(PuzzleState.ACTIONS.length));
+            }
+            PuzzleSolver solver = new PuzzleSolver(patterns);
+            solver.AStar(initial, new PuzzleState(goal));
+        }
+    }
+
+    /**
+     * Serves requests on the loopback interface:
+     * GET /solve?initial=8,3,2,4,7,1,0,5,6&goal=0,1,2,3,4,5,6,7,8&timeoutMs=1000 answers the moves as letters,
+     * see Solution.toString, 422 if the pair is not solvable, 503 if the queue is full and 504 past the deadline.
+     * Boards are square unless rows=n gives the number of rows.
+     * GET /metrics answers the counters in the Prometheus text format.
+     * @param port, the port to listen on, or 0 for any free port
+     * @param defaultTimeoutMillis, the deadline of requests that do not give one
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start(int port, long defaultTimeoutMillis) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The service is already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        //handlers only parse a request and submit it, so few are needed. When they fall behind, the server's
+        //own thread runs the handler, which answers 503 if the search queue is full, instead of queueing without bound
+        int threads = workers.getMaximumPoolSize();
+        handlers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, workers.getQueue().remainingCapacity())), task -> {
+                    Thread thread = new Thread(task, "astar-solve-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        server.setExecutor(handlers);
+        server.createContext("/solve", exchange -> handleSolve(exchange, defaultTimeoutMillis));
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+    }
+
+    /**
+     * @return the port the service listens on
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The service is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    private void handleSolve(HttpExchange exchange, long defaultTimeoutMillis) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI());
+        long timeout;
+        CompletableFuture<Solution> future;
+        try {
+            int rows = query.containsKey("rows") ? Integer.parseInt(query.get("rows")) : 0;
+            int[][] initial = parse(query.get("initial"), rows);
+            int[][] goal = parse(query.get("goal"), rows);
+            timeout = query.containsKey("timeoutMs") ? Long.parseLong(query.get("timeoutMs")) : defaultTimeoutMillis;
+            future = submit(initial, goal, timeout, TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException e) {
+            try (exchange) {
+                respond(exchange, 400, e.getMessage());
+            }
+            return;
+        } catch (RejectedExecutionException e) {
+            try (exchange) {
+                reject(exchange);
+            }
+            return;
+        }
+        //the search may be shared, so the request's own deadline goes on a copy of its future
+        future.copy().orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .whenComplete((solution, error) -> reply(exchange, solution, error));
+    }
+
+    /**
+     * Answers a request once its search completes, on the thread that completed it
+     */
+    private static void reply(HttpExchange exchange, Solution solution, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        try (exchange) {
+            if (cause == null) {
+                if (solution == null) {
+                    respond(exchange, 422, "Not Solvable");
+                } else {
+                    respond(exchange, 200, solution.toString());
+                }
+            } else if (cause instanceof TimeoutException) {
+                respond(exchange, 504, "Timed out");
+            } else if (cause instanceof RejectedExecutionException) {
+                reject(exchange);
+            } else {
+                respond(exchange, 500, String.valueOf(cause));
+            }
+        } catch (IOException e) {
+            //the client went away, there is no one left to answer
+        }
+    }
+
+    private static void reject(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, "Too many requests");
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            respond(exchange, 200, toPrometheus());
+        }
+    }
+
+    /**
+     * @return the search counters and the service's own, in the Prometheus text format
+     */
+    public String toPrometheus() {
+        return counters.toPrometheus()
+                + "# TYPE astar_service_coalesced_total counter\nastar_service_coalesced_total " + coalesced.sum() + "\n"
+                + "# TYPE astar_service_rejected_total counter\nastar_service_rejected_total " + rejected.sum() + "\n"
+                + "# TYPE astar_service_timed_out_total counter\nastar_service_timed_out_total " + timedOut.sum() + "\n"
+                + "# TYPE astar_service_queued gauge\nastar_service_queued " + workers.getQueue().size() + "\n";
+    }
+
+    public SearchCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * @return the number of requests that shared a search already running
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of requests turned away because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the number of searches that ran past their deadline
+     */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String part : raw.split("&")) {
+            int equals = part.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(part.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(part.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Reads a puzzle written as its tiles in row order separated by commas
+     * @param rows, the number of rows, or 0 for a square board
+     */
+    private static int[][] parse(String tiles, int rows) {
+        if (tiles == null) {
+            throw new IllegalArgumentException("Both initial and goal are needed");
+        }
+        String[] parts = tiles.split(",");
+        if (rows == 0) {
+            rows = (int) Math.round(Math.sqrt(parts.length));
+            if (rows * rows != parts.length) {
+                throw new IllegalArgumentException(parts.length + " tiles do not make a square board, give rows");
+            }
+        }
+        if (rows < 0 || parts.length % rows != 0) {
+            throw new IllegalArgumentException(parts.length + " tiles do not fill " + rows + " rows");
+        }
+        int cols = parts.length / rows;
+        int[][] puzzle = new int[rows][cols];
+        for (int cell = 0; cell < parts.length; cell++) {
+            //NumberFormatException is an IllegalArgumentException
+            puzzle[cell / cols][cell % cols] = Integer.parseInt(parts[cell].trim());
+        }
+        return puzzle;
+    }
+
+    /**
+     * Stops accepting requests and interrupts the searches still running
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            handlers.shutdownNow();
+            server = null;
+        }
+        workers.shutdownNow();
+        watchdog.shutdownNow();
+        for (Flight flight : new ArrayList<>(inFlight.values())) {
+            flight.result.completeExceptionally(new RejectedExecutionException("The service is closed"));
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Runs the service until the process is stopped, usage: SolveService [port] [threads] [queue] [pdb file]
+     * @param args, the port, default 8080, the number of workers, default the number of processors,
+     *        the queue capacity, default 64, and a pattern database file written by AdditivePatternDatabase.save
+     * @throws IOException if the port cannot be bound or the pattern database cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queue = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        AdditivePatternDatabase patterns = args.length > 3 ? AdditivePatternDatabase.load(Path.of(args[3])) : null;
+        SolveService service = new SolveService(threads, queue, patterns, null);
+        service.warmUp(2000);
+        service.start(port, 10_000);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+        System.out.println("Listening on http://localhost:" + service.getPort() + "/solve");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Receives the successors of a state as AStarSolver.expand generates them, so no list is built per expansion
+ * The solver owns it and answers whether a state was already expanded, subclasses push children into it
+ * and mark their heuristic evaluations on it so the heuristic can be timed apart from the rest of expand
+ * 10/17/26
+ */
+package astar;
+
+import java.util.List;
+
+/**
+ *
+ * @author Joseph
+ * @param <T>, object represents an AI state
+ */
+public abstract class Successors<T extends AStarSolver.AIState> {
+
+    private final LongHashSet closedSet;
+    /* The statistics heuristic time is counted into, or null when the search is not timed */
+    private final SearchStats timing;
+
+    /**
+     * @param closedSet, keys of the states already expanded
+     */
+    Successors(LongHashSet closedSet) {
+        this(closedSet, null);
+    }
+
+    /**
+     * @param closedSet, keys of the states already expanded
+     * @param timing, the statistics to count heuristic time into, or null to not time it
+     */
+    Successors(LongHashSet closedSet, SearchStats timing) {
+        this.closedSet = closedSet;
+        this.timing = timing;
+    }
+
+    /**
+     * Collects successors into a list, used to implement calculateStates on top of expand
+     * @param <T>, object represents an AI state
+     * @param closedSet, keys of the states already expanded
+     * @param list, the list to add to
+     * @return the successors
+     */
+    static <T extends AStarSolver.AIState> Successors<T> into(LongHashSet closedSet, List<T> list) {
+        return into(closedSet, list, null);
+    }
+
+    /**
+     * Collects successors into a list, timing their heuristic
+     * @param <T>, object represents an AI state
+     * @param closedSet, keys of the states already expanded
+     * @param list, the list to add to
+     * @param timing, the statistics to count heuristic time into, or null to not time it
+     * @return the successors
+     */
+    static <T extends AStarSolver.AIState> Successors<T> into(LongHashSet closedSet, List<T> list, SearchStats timing) {
+        return new Successors<T>(closedSet, timing) {
+            @Override
+            public void add(T state) {
+                list.add(state);
+            }
+        };
+    }
+
+    /**
+     * Checks whether a state was already expanded, a closed state need not be generated
+     * @param key, the key of the state
+     * @return true or false
+     */
+    public boolean isClosed(long key) {
+        return closedSet.contains(key);
+    }
+
+    /**
+     * Marks the start of a heuristic evaluation in expand, the time until heuristicFinished is reported
+     * apart from the rest of the expansion
+     * @return the time to pass to heuristicFinished, or 0 if the search is not timed
+     */
+    public long heuristicStarted() {
+        return timing == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a heuristic evaluation in expand
+     * @param started, the time heuristicStarted returned
+     */
+    public void heuristicFinished(long started) {
+        if (timing != null) {
+            timing.heuristicNanos += System.nanoTime() - started;
+        }
+    }
+
+    /**
+     * Adds a successor, its path cost and heuristic must be set
+     * @param state, the successor
+     */
+    public abstract void add(T state);
+
+    LongHashSet closedSet() {
+        return closedSet;
+    }
+}
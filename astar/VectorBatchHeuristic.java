@@ -0,0 +1,91 @@
+/*
+ * The batch heuristic on the incubating vector API, one board per lane of the widest long vector
+ * The distances are found with variable shifts of each cell's 4 bit table, the line conflicts with
+ * gathers from the conflict table. Only loaded by BatchHeuristic.forGoal when jdk.incubator.vector is present.
+ * 10/17/26
+ */
+package astar;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ *
+ * @author Joseph
+ */
+final class VectorBatchHeuristic extends BatchHeuristic {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /* Ints with one lane per board, to gather the conflicts and store the results */
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(LONGS.length() * Integer.SIZE));
+
+    /* The gather indexes of one line of every lane, reused by each batch */
+    private final int[] index = new int[LONGS.length()];
+
+    VectorBatchHeuristic(GoalTable table) {
+        super(table);
+    }
+
+    /**
+     * @return true if the widest long vector holds more than one board
+     */
+    static boolean isSupported() {
+        return LONGS.length() > 1;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public void estimate(long[] boards, int[] h, int count) {
+        int bound = LONGS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector board = LongVector.fromArray(LONGS, boards, i);
+            LongVector distance = LongVector.zero(LONGS);
+            for (int cell = 0; cell < CELLS; cell++) {
+                LongVector shift = board.lanewise(VectorOperators.LSHR, cell << 2).and(0xFL)
+                        .lanewise(VectorOperators.LSHL, 2);
+                distance = distance.add(LongVector.broadcast(LONGS, distances[cell])
+                        .lanewise(VectorOperators.LSHR, shift).and(0xFL));
+            }
+            IntVector sum = (IntVector) distance.convertShape(VectorOperators.L2I, INTS, 0);
+            for (int line = 0; line < SIZE; line++) {
+                sum = sum.add(gather(board.lanewise(VectorOperators.LSHR, line * LINE_BITS).and(LINE_MASK), line));
+                sum = sum.add(gather(column(board, line), SIZE + line));
+            }
+            sum.intoArray(h, i);
+        }
+        for (; i < count; i++) {
+            h[i] = estimate(boards[i]);
+        }
+    }
+
+    /**
+     * Reads the conflict of a line of each board
+     * @param bits, the tiles in the line of each board
+     * @param line, the line, rows then columns
+     * @return the conflicts
+     */
+    private IntVector gather(LongVector bits, int line) {
+        ((IntVector) bits.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(index, 0);
+        return IntVector.fromArray(INTS, conflicts, line << LINE_BITS, index, 0);
+    }
+
+    /**
+     * Gathers the tiles of a column of each board into a line, see BatchHeuristic.column
+     */
+    private static LongVector column(LongVector board, int col) {
+        LongVector bits = LongVector.zero(LONGS);
+        for (int i = 0; i < SIZE; i++) {
+            bits = bits.or(board.lanewise(VectorOperators.LSHR, (i * (SIZE - 1) + col) << 2).and(0xFL << (i << 2)));
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * A sliding puzzle board of more than 16 cells, packed into an array of longs with as few bits per tile as
+ * the largest tile needs, 5 for a 5x5 board which then takes 3 longs.
+ * A board this size has more orderings than a long has values, so its key is a Zobrist hash of its tiles,
+ * updated with two xors per move. Two different boards share a key with a chance of about 1 in 2^64,
+ * isEqualTo compares the tiles themselves. The key is not exact, so searches that keep states by key turn these boards away.
+ * 10/17/26
+ */
+package astar;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * @author Joseph
+ */
+public class WideSlidingState extends SlidingState {
+
+    /* The random value of each tile on each cell, tile * cells + cell, one table per number of cells */
+    private static final ConcurrentHashMap<Integer, long[]> ZOBRIST = new ConcurrentHashMap<>();
+
+    private final int bits;
+    private final int tilesPerWord;
+    private final long mask;
+    private final long[] zobrist;
+    private final long[] words;
+    private long key;
+
+    /**
+     * @param rows, the number of rows
+     * @param cols, the number of columns
+     * @param tiles, the tile on each cell, row * cols + col
+     */
+    WideSlidingState(int rows, int cols, int[] tiles) {
+        super(rows, cols, -1);
+        int cells = tiles.length;
+        this.bits = Integer.SIZE - Integer.numberOfLeadingZeros(cells - 1);
+        this.tilesPerWord = Long.SIZE / bits;
+        this.mask = (1L << bits) - 1;
+        this.zobrist = ZOBRIST.computeIfAbsent(cells, WideSlidingState::zobristTable);
+        this.words = new long[(cells + tilesPerWord - 1) / tilesPerWord];
+        for (int cell = 0; cell < cells; cell++) {
+            set(cell, tiles[cell]);
+            if (tiles[cell] == 0) {
+                blank = cell;
+            } else {
+                key ^= zobrist[tiles[cell] * cells + cell];
+            }
+        }
+    }
+
+    private WideSlidingState(WideSlidingState other) {
+        super(other.rows, other.cols, other.blank);
+        this.bits = other.bits;
+        this.tilesPerWord = other.tilesPerWord;
+        this.mask = other.mask;
+        this.zobrist = other.zobrist;
+        this.words = other.words.clone();
+        this.key = other.key;
+    }
+
+    private static long[] zobristTable(int cells) {
+        SplittableRandom random = new SplittableRandom(cells);
+        long[] table = new long[cells * cells];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+        return table;
+    }
+
+    @Override
+    public int tileAt(int cell) {
+        int shift = (cell % tilesPerWord) * bits;
+        return (int) ((words[cell / tilesPerWord] >>> shift) & mask);
+    }
+
+    private void set(int cell, int tile) {
+        int shift = (cell % tilesPerWord) * bits;
+        int word = cell / tilesPerWord;
+        words[word] = (words[word] & ~(mask << shift)) | ((long) tile << shift);
+    }
+
+    @Override
+    protected void slide(int from) {
+        int tile = tileAt(from);
+        int cells = rows * cols;
+        set(blank, tile);
+        set(from, 0);
+        key ^= zobrist[tile * cells + from] ^ zobrist[tile * cells + blank];
+    }
+
+    @Override
+    public SlidingState copy() {
+        return copyInto(new WideSlidingState(this));
+    }
+
+    @Override
+    public boolean isEqualTo(SlidingState other) {
+        return other instanceof WideSlidingState && rows == other.rows && cols == other.cols
+                && key == other.key() && Arrays.equals(words, ((WideSlidingState) other).words);
+    }
+
+    @Override
+    public long key() {
+        return key;
+    }
+}
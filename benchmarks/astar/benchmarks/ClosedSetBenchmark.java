@@ -0,0 +1,74 @@
+/*
+ * Microbenchmark of closed set lookups, the primitive LongHashSet against a boxed HashSet
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.LongHashSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClosedSetBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private LongHashSet primitive;
+    private HashSet<Long> boxed;
+    /* Half of the probes are in the sets */
+    private long[] probes;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        primitive = new LongHashSet();
+        boxed = new HashSet<>();
+        probes = new long[4096];
+        for (int i = 0; i < size; i++) {
+            long key = random.nextLong();
+            primitive.add(key);
+            boxed.add(key);
+            if (i < probes.length / 2) {
+                probes[i * 2] = key;
+            }
+        }
+        for (int i = 1; i < probes.length; i += 2) {
+            probes[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    public boolean longHashSet() {
+        next = (next + 1) & (probes.length - 1);
+        return primitive.contains(probes[next]);
+    }
+
+    @Benchmark
+    public boolean hashSet() {
+        next = (next + 1) & (probes.length - 1);
+        return boxed.contains(probes[next]);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * End to end benchmark of grid pathfinding on a random map, plain AStar against jump point search
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.GridMap;
+import astar.GridSolver;
+import astar.GridState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridBenchmark {
+
+    @Param({"astar", "jps"})
+    public String mode;
+
+    /* The percentage of blocked cells */
+    @Param({"0", "20"})
+    public int blocked;
+
+    @Param({"512"})
+    public int size;
+
+    private GridSolver solver;
+    /* Pairs of passable cells, start then goal */
+    private List<GridState[]> queries;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        String[] rows = new String[size];
+        for (int y = 0; y < size; y++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int x = 0; x < size; x++) {
+                row.append(random.nextInt(100) < blocked ? '@' : '.');
+            }
+            rows[y] = row.toString();
+        }
+        GridMap map = new GridMap(rows);
+        solver = new GridSolver(map, true);
+        queries = new ArrayList<>();
+        while (queries.size() < 100) {
+            GridState start = new GridState(random.nextInt(size), random.nextInt(size));
+            GridState goal = new GridState(random.nextInt(size), random.nextInt(size));
+            if (map.isPassable(start.getX(), start.getY()) && map.isPassable(goal.getX(), goal.getY())) {
+                queries.add(new GridState[]{start, goal});
+            }
+        }
+        //build the jump table outside of the measurement
+        solver.jumpPointSearch(queries.get(0)[0], queries.get(0)[0]);
+    }
+
+    /**
+     * Finds the path of the next query, cycling through all of them
+     *
+     * @return the path so it is not optimised away
+     */
+    @Benchmark
+    public Object solve() {
+        GridState[] query = queries.get(next);
+        next = (next + 1) % queries.size();
+        GridState start = new GridState(query[0].getX(), query[0].getY());
+        GridState goal = new GridState(query[1].getX(), query[1].getY());
+        if (mode.equals("jps")) {
+            return solver.jumpPointSearch(start, goal);
+        }
+        return solver.AStar(start, goal);
+    }
+}
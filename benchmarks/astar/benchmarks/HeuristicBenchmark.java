@@ -0,0 +1,117 @@
+/*
+ * Microbenchmarks of the puzzle heuristics, from the original goal array entry point to the incremental update
+ * and the batch kernels, forked with the vector module so BatchHeuristic.forGoal can pick the vector kernel
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.BatchHeuristic;
+import astar.GoalTable;
+import astar.PuzzleState;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HeuristicBenchmark {
+
+    /* The number of boards scored per call by the batch benchmarks */
+    private static final int BATCH = 1024;
+
+    private PuzzleState goal;
+    private int[][] goalPuzzle;
+    private GoalTable table;
+    private PuzzleState parent;
+    private PuzzleState child;
+    private int direction;
+    private BatchHeuristic scalarBatch;
+    private BatchHeuristic batch;
+    private long[] boards;
+    private int[] estimates;
+
+    @Setup
+    public void setup() {
+        goalPuzzle = Instances.goal();
+        goal = new PuzzleState(goalPuzzle);
+        table = new GoalTable(goal);
+        parent = new PuzzleState(Instances.random(1, 200, 7).get(0));
+        parent.g = 0;
+        parent.f = table.estimate(parent.getBoard());
+        for (direction = 0; direction < PuzzleState.ACTIONS.length; direction++) {
+            child = parent.copy();
+            if (child.move(direction)) {
+                break;
+            }
+        }
+        scalarBatch = new BatchHeuristic(table);
+        batch = BatchHeuristic.forGoal(table);
+        List<int[][]> puzzles = Instances.random(BATCH, 200, 11);
+        boards = new long[BATCH];
+        estimates = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            boards[i] = new PuzzleState(puzzles.get(i)).getBoard();
+        }
+    }
+
+    /**
+     * The original entry point, which now builds a GoalTable of the goal array on every call
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int goalArray() {
+        child.calculateHeursitic(parent.g, goalPuzzle);
+        return child.f;
+    }
+
+    @Benchmark
+    public int manhattan() {
+        return table.manhattan(child.getBoard());
+    }
+
+    @Benchmark
+    public int manhattanWithLinearConflict() {
+        return table.estimate(child.getBoard());
+    }
+
+    @Benchmark
+    public int incremental() {
+        child.calculateHeursitic(parent, table, null);
+        return child.f;
+    }
+
+    /**
+     * A batch of boards scored by the scalar kernel, divide by 1024 for the time per board
+     */
+    @Benchmark
+    public int[] batchScalar() {
+        scalarBatch.estimate(boards, estimates, BATCH);
+        return estimates;
+    }
+
+    /**
+     * A batch of boards scored by the vector kernel when the module is present
+     */
+    @Benchmark
+    public int[] batchVector() {
+        batch.estimate(boards, estimates, BATCH);
+        return estimates;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Problem instances shared by the benchmarks
+ * Random instances are made by random walks from the goal so they are always solvable
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.PuzzleState;
+import astar.SlidingState;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Instances {
+
+    private Instances() {
+    }
+
+    /**
+     * Gets the goal with the 0 in the top left and the tiles in order, as used by Korf's instances
+     *
+     * @return the goal puzzle
+     */
+    public static int[][] goal() {
+        return goal(PuzzleState.BOARD_SIZE);
+    }
+
+    /**
+     * Gets the goal of a square board of any size, see goal()
+     *
+     * @param size, the number of rows and columns
+     * @return the goal puzzle
+     */
+    public static int[][] goal(int size) {
+        int[][] goal = new int[size][size];
+        for (int i = 0; i < size * size; i++) {
+            goal[i / size][i % size] = i;
+        }
+        return goal;
+    }
+
+    /**
+     * Makes random instances by walking the 0 randomly away from the goal
+     *
+     * @param count, the number of instances
+     * @param steps, the number of random moves from the goal
+     * @param seed, the seed so every run benchmarks the same instances
+     * @return the initial puzzles
+     */
+    public static List<int[][]> random(int count, int steps, long seed) {
+        return random(PuzzleState.BOARD_SIZE, count, steps, seed);
+    }
+
+    /**
+     * Makes random instances of a square board of any size, see random(count, steps, seed)
+     *
+     * @param size, the number of rows and columns
+     * @param count, the number of instances
+     * @param steps, the number of random moves from the goal
+     * @param seed, the seed so every run benchmarks the same instances
+     * @return the initial puzzles
+     */
+    public static List<int[][]> random(int size, int count, int steps, long seed) {
+        Random random = new Random(seed);
+        List<int[][]> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SlidingState state = SlidingState.of(goal(size));
+            for (int j = 0; j < steps; j++) {
+                state.move(random.nextInt(PuzzleState.ACTIONS.length));
+            }
+            instances.add(state.toArray());
+        }
+        return instances;
+    }
+
+    /**
+     * Reads instances in the format of Korf's 100 15-puzzle instances, one per line with an
+     * optional number followed by the tiles in row order, the 0 being the blank
+     *
+     * @param path, the file to read
+     * @return the initial puzzles
+     * @throws IOException if the file cannot be read
+     */
+    public static List<int[][]> read(Path path) throws IOException {
+        return read(path, PuzzleState.BOARD_SIZE);
+    }
+
+    /**
+     * Reads instances of a square board of any size, see read(path)
+     *
+     * @param path, the file to read
+     * @param size, the number of rows and columns, 4 for Korf's instances
+     * @return the initial puzzles
+     * @throws IOException if the file cannot be read
+     */
+    public static List<int[][]> read(Path path, int size) throws IOException {
+        int cells = size * size;
+        List<int[][]> instances = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            String[] fields = line.trim().split("\\s+");
+            if (line.isBlank() || fields.length < cells) {
+                continue;
+            }
+            int offset = fields.length - cells;
+            int[][] puzzle = new int[size][size];
+            for (int i = 0; i < cells; i++) {
+                puzzle[i / size][i % size] = Integer.parseInt(fields[offset + i]);
+            }
+            instances.add(puzzle);
+        }
+        return instances;
+    }
+}
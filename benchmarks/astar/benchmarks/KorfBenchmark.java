@@ -0,0 +1,84 @@
+/*
+ * Solves Korf's 15-puzzle instances with IDA* on SlidingSolver, which sizes its boards at runtime
+ * The instances are read from a file given with -p instances=path. The estimate is the manhattan distance plus
+ * linear conflict, raised by the 6-6-3 pattern databases unless -p patterns=none. They are built before the
+ * first iteration, or loaded from a file written by AdditivePatternDatabase.save with -p patterns=path.
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.AdditivePatternDatabase;
+import astar.SlidingSolver;
+import astar.SlidingState;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class KorfBenchmark {
+
+    /* The file of instances, one per line */
+    @Param({""})
+    public String instances;
+
+    /* The line of the instance to solve, starting from 0 */
+    @Param({"0"})
+    public int index;
+
+    /* 663 to build the 6-6-3 pattern databases, none for linear conflict only, or a file of saved databases */
+    @Param({"663"})
+    public String patterns;
+
+    private SlidingSolver solver;
+    private SlidingState initial;
+    private SlidingState goal;
+
+    @Setup
+    public void setup() throws IOException {
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("Pass the instance file with -p instances=path");
+        }
+        List<int[][]> all = Instances.read(Paths.get(instances), 4);
+        initial = SlidingState.of(all.get(index));
+        goal = SlidingState.of(Instances.goal(4));
+        switch (patterns) {
+            case "none":
+                solver = new SlidingSolver();
+                break;
+            case "663":
+                solver = new SlidingSolver(AdditivePatternDatabase.build(goal,
+                        new int[]{1, 4, 5, 8, 9, 12}, new int[]{2, 3, 6, 7, 10, 11}, new int[]{13, 14, 15}));
+                break;
+            default:
+                solver = new SlidingSolver(AdditivePatternDatabase.load(Paths.get(patterns)));
+                break;
+        }
+    }
+
+    @Benchmark
+    public ArrayList<SlidingState> solve() {
+        return solver.IDAStar(initial.copy(), goal);
+    }
+}
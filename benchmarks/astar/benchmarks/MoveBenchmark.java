@@ -0,0 +1,63 @@
+/*
+ * Microbenchmarks of move generation, copying moves against in place moves
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.PuzzleState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+    private PuzzleState state;
+
+    @Setup
+    public void setup() {
+        state = new PuzzleState(Instances.random(1, 200, 7).get(0));
+    }
+
+    /**
+     * Generates every child as a new state, as A* does
+     */
+    @Benchmark
+    public void copyingMoves(Blackhole blackhole) {
+        blackhole.consume(state.moveUp());
+        blackhole.consume(state.moveDown());
+        blackhole.consume(state.moveLeft());
+        blackhole.consume(state.moveRight());
+    }
+
+    /**
+     * Visits every child by moving and moving back, as IDA* does
+     */
+    @Benchmark
+    public void inPlaceMoves(Blackhole blackhole) {
+        for (int direction = 0; direction < PuzzleState.ACTIONS.length; direction++) {
+            if (state.move(direction)) {
+                blackhole.consume(state.getBoard());
+                state.move(PuzzleState.inverse(direction));
+            }
+        }
+    }
+}
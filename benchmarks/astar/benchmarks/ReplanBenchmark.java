@@ -0,0 +1,132 @@
+/*
+ * Benchmark of replanning on a grid that changes between queries, planning again from scratch with AStar
+ * against repairing the last search with IncrementalAStar. Each call changes one cell, either blocking a cell
+ * of the current path or opening a wall beside it, or puts back the cell the call before changed, then finds
+ * the path again.
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.GridMap;
+import astar.GridSolver;
+import astar.GridState;
+import astar.IncrementalAStar;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplanBenchmark {
+
+    @Param({"astar", "incremental"})
+    public String mode;
+
+    @Param({"256"})
+    public int size;
+
+    /* How far along the path the changed cell is, in percent, D* Lite repairs changes near the start fastest */
+    @Param({"5", "50"})
+    public int along;
+
+    /* Whether to block a cell of the path or to open a wall beside it */
+    @Param({"block", "open"})
+    public String change;
+
+    private GridMap map;
+    private GridSolver solver;
+    private IncrementalAStar<GridState> planner;
+    private ArrayList<GridState> path;
+    /* The cell changed by the last call, or null if that call put one back */
+    private GridState changedCell;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        String[] rows = new String[size];
+        for (int y = 0; y < size; y++) {
+            StringBuilder row = new StringBuilder(size);
+            for (int x = 0; x < size; x++) {
+                row.append(random.nextInt(100) < 20 ? '@' : '.');
+            }
+            rows[y] = row.toString();
+        }
+        map = new GridMap(rows);
+        map.setPassable(0, 0, true);
+        map.setPassable(size - 1, size - 1, true);
+        solver = new GridSolver(map, true);
+        planner = solver.incrementalAStar(new GridState(0, 0), new GridState(size - 1, size - 1));
+        path = planner.plan();
+    }
+
+    /**
+     * Changes one cell and finds the path again
+     *
+     * @return the path so it is not optimised away
+     */
+    @Benchmark
+    public ArrayList<GridState> replan() {
+        boolean open = change.equals("open");
+        GridState cell;
+        if (changedCell != null) {
+            cell = changedCell;
+            map.setPassable(cell.getX(), cell.getY(), !open);
+            changedCell = null;
+        } else {
+            int index = Math.max(1, path.size() * along / 100);
+            cell = open ? wallBeside(index) : new GridState(path.get(index).getX(), path.get(index).getY());
+            map.setPassable(cell.getX(), cell.getY(), open);
+            changedCell = cell;
+        }
+        ArrayList<GridState> found;
+        if (mode.equals("incremental")) {
+            planner.stateChanged(cell);
+            found = planner.plan();
+        } else {
+            found = solver.AStar(new GridState(0, 0), new GridState(size - 1, size - 1));
+        }
+        //a block that cuts the map leaves the last path to pick the cell the next call opens
+        if (found != null) {
+            path = found;
+        }
+        return found;
+    }
+
+    /**
+     * Finds a wall beside the path, at or after a cell of it
+     */
+    private GridState wallBeside(int index) {
+        for (int i = index; i < path.size(); i++) {
+            GridState onPath = path.get(i);
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int x = onPath.getX() + dx;
+                    int y = onPath.getY() + dy;
+                    if (x >= 0 && y >= 0 && x < size && y < size && !map.isPassable(x, y)) {
+                        return new GridState(x, y);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No wall beside the path");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * End to end benchmark of the search modes on random instances of the configured board size
+ * The sliding mode runs SlidingSolver, which sizes its boards at runtime, on the same instances
+ * 10/17/26
+ */
+package astar.benchmarks;
+
+import astar.PuzzleSolver;
+import astar.PuzzleState;
+import astar.SlidingSolver;
+import astar.SlidingState;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author Joseph
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SearchBenchmark {
+
+    @Param({"astar", "idastar", "bidirectional", "compact", "epea", "indexed", "frontier", "batch", "sliding"})
+    public String mode;
+
+    /* The number of random moves away from the goal */
+    @Param({"200"})
+    public int steps;
+
+    private List<int[][]> instances;
+    private int[][] goal;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        instances = Instances.random(100, steps, 42);
+        goal = Instances.goal();
+    }
+
+    /**
+     * Solves the next instance, cycling through all of them
+     *
+     * @return the solution so it is not optimised away
+     */
+    @Benchmark
+    public List<?> solve() {
+        int[][] initial = instances.get(next);
+        next = (next + 1) % instances.size();
+        switch (mode) {
+            case "idastar":
+                return PuzzleSolver.IDAStar(initial, goal);
+            case "bidirectional":
+                return PuzzleSolver.bidirectionalAStar(initial, goal);
+            case "compact":
+                return PuzzleSolver.compactAStar(initial, goal);
+            case "epea":
+                return new PuzzleSolver().partialExpansionAStar(new PuzzleState(initial), new PuzzleState(goal));
+            case "frontier":
+                return PuzzleSolver.frontierAStar(initial, goal);
+            case "batch":
+                return new PuzzleSolver().batchAStar(new PuzzleState(initial), new PuzzleState(goal), 8);
+            case "sliding":
+                return new SlidingSolver().solve(SlidingState.of(initial), SlidingState.of(goal));
+            case "indexed":
+                return new PuzzleSolver().indexedAStar(new PuzzleState(initial), new PuzzleState(goal));
+            default:
+                return PuzzleSolver.AStar(initial, goal);
+        }
+    }
+}
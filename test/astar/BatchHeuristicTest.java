@@ -0,0 +1,43 @@
+/*
+ * Checks the batch heuristic kernels against each other and against GoalTable
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class BatchHeuristicTest {
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+
+    @Test
+    void kernelsMatchGoalTable() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 8; trial++) {
+            int[][][] pair = RandomInstances.pair(SIZE, SIZE, random);
+            GoalTable table = new GoalTable(new PuzzleState(pair[1]));
+            BatchHeuristic scalar = new BatchHeuristic(table);
+            BatchHeuristic batch = BatchHeuristic.forGoal(table);
+            //a count that is not a multiple of any vector width leaves a tail for the scalar loop
+            int count = 1000 + trial;
+            long[] boards = new long[count];
+            for (int i = 0; i < count; i++) {
+                boards[i] = new PuzzleState(RandomInstances.pair(SIZE, SIZE, random)[0]).getBoard();
+            }
+            int[] h = new int[count];
+            batch.estimate(boards, h, count);
+            for (int i = 0; i < count; i++) {
+                int expected = table.estimate(boards[i]);
+                assertEquals(expected, h[i], "trial " + trial + " board " + i);
+                assertEquals(expected, scalar.estimate(boards[i]));
+            }
+        }
+    }
+}
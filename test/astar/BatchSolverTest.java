@@ -0,0 +1,72 @@
+/*
+ * Checks that batches of problems are solved as they would be one at a time
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class BatchSolverTest {
+
+    private static final int PAIRS = 12;
+
+    @Test
+    void batchesMatchAStar() throws InterruptedException {
+        Random random = new Random(3);
+        List<int[][][]> pairs = new ArrayList<>();
+        for (int trial = 0; trial < PAIRS; trial++) {
+            pairs.add(RandomInstances.pair(3, 3, random));
+        }
+        List<ArrayList<PuzzleState>> paths = PuzzleSolver.AStar(pairs, 0, TimeUnit.SECONDS);
+        for (int trial = 0; trial < PAIRS; trial++) {
+            assertEquals(PuzzleSolver.AStar(pairs.get(trial)[0], pairs.get(trial)[1]).size(), paths.get(trial).size());
+        }
+    }
+
+    @Test
+    void batchSolverRunsTheSearchItIsGiven() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Random random = new Random(6);
+            List<BatchSolver.Problem<PuzzleState>> problems = new ArrayList<>();
+            for (int trial = 0; trial < 6; trial++) {
+                int[][][] pair = RandomInstances.pair(3, 3, random);
+                problems.add(new BatchSolver.Problem<>(new PuzzleState(pair[0]), new PuzzleState(pair[1])));
+            }
+            BatchSolver<PuzzleState> batch = new BatchSolver<>(PuzzleSolver::new, executor, InPlaceSolver::IDAStar);
+            List<BatchSolver.Result<PuzzleState>> results = batch.solveAll(problems, 0, TimeUnit.SECONDS);
+            for (int trial = 0; trial < results.size(); trial++) {
+                BatchSolver.Result<PuzzleState> result = results.get(trial);
+                assertEquals(trial, result.getIndex());
+                assertEquals(BatchSolver.Status.SOLVED, result.getStatus());
+                BatchSolver.Problem<PuzzleState> problem = result.getProblem();
+                assertEquals(RandomInstances.cost(new PuzzleSolver().AStar(problem.getInitial().copy(), problem.getGoal())),
+                        RandomInstances.cost(result.getPath()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void unsolvablePairsHaveNoSolution() throws InterruptedException {
+        //two tiles swapped, so the goal is on the other half of the states
+        BatchSolver.Problem<PuzzleState> problem = new BatchSolver.Problem<>(
+                new PuzzleState(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}),
+                new PuzzleState(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 0}}));
+        List<BatchSolver.Result<PuzzleState>> results = new BatchSolver<>(PuzzleSolver::new).solveAll(List.of(problem), 0, TimeUnit.SECONDS);
+        assertEquals(BatchSolver.Status.NO_SOLUTION, results.get(0).getStatus());
+    }
+}
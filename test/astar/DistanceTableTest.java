@@ -0,0 +1,72 @@
+/*
+ * Checks DistanceTable against a breadth first search over every board
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Joseph
+ */
+class DistanceTableTest {
+
+    @Test
+    void ranksEveryBoardToItsDistance() {
+        PuzzleState goal = new PuzzleState(RandomInstances.pair(3, 3, new Random(9))[1]);
+        DistanceTable table = DistanceTable.build(goal);
+        Map<Long, Integer> distances = new HashMap<>();
+        ArrayDeque<PuzzleState> queue = new ArrayDeque<>();
+        distances.put(goal.getBoard(), 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            PuzzleState state = queue.poll();
+            int distance = distances.get(state.getBoard());
+            assertEquals(distance, table.distance(state.getBoard()));
+            for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+                PuzzleState next = state.copy();
+                if (next.move(move) && !distances.containsKey(next.getBoard())) {
+                    distances.put(next.getBoard(), distance + 1);
+                    queue.add(next);
+                }
+            }
+        }
+        assertEquals(181440, distances.size());
+    }
+
+    @Test
+    void solvesLikeAStar(@TempDir Path directory) throws IOException {
+        Random random = new Random(10);
+        int[][] goal = RandomInstances.pair(3, 3, random)[1];
+        DistanceTable table = DistanceTable.build(new PuzzleState(goal));
+        Path file = directory.resolve("distances.bin");
+        table.save(file);
+        DistanceTable loaded = DistanceTable.load(file);
+        assertTrue(loaded.isBuiltFor(new PuzzleState(goal)));
+        for (int trial = 0; trial < 20; trial++) {
+            int[][] initial = RandomInstances.pair(3, 3, random)[0];
+            ArrayList<PuzzleState> expected = PuzzleSolver.AStar(initial, goal);
+            if (expected == null) {
+                assertEquals(-1, loaded.distance(new PuzzleState(initial).getBoard()));
+                assertNull(loaded.solve(new PuzzleState(initial)));
+                continue;
+            }
+            ArrayList<PuzzleState> path = PuzzleSolver.tableSolve(initial, goal, loaded);
+            assertEquals(expected.size(), path.size(), "trial " + trial);
+            SearchModesTest.assertConnected(path, new PuzzleState(initial), new PuzzleState(goal));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Checks the goal table against a direct count of the linear conflict and its deltas against full estimates
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class GoalTableTest {
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+
+    @Test
+    void goalTableCountsTheLinearConflict() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 2000; trial++) {
+            int[][][] pair = RandomInstances.pair(SIZE, SIZE, random);
+            GoalTable table = new GoalTable(new PuzzleState(pair[1]));
+            long board = new PuzzleState(pair[0]).getBoard();
+            assertEquals(linearConflict(pair[0], pair[1]), table.linearConflict(board), "trial " + trial);
+        }
+    }
+
+    @Test
+    void deltasFollowTheEstimate() {
+        Random random = new Random(14);
+        int[][][] pair = RandomInstances.pair(SIZE, SIZE, random);
+        GoalTable table = new GoalTable(new PuzzleState(pair[1]));
+        PuzzleState state = new PuzzleState(pair[0]);
+        int h = table.estimate(state.getBoard());
+        for (int step = 0; step < 5000; step++) {
+            int from = blank(state.getBoard());
+            if (!state.move(random.nextInt(PuzzleState.ACTIONS.length))) {
+                continue;
+            }
+            h += table.delta(state.getBoard(), from, blank(state.getBoard()));
+            assertEquals(table.estimate(state.getBoard()), h, "step " + step);
+        }
+    }
+
+    private static int blank(long board) {
+        for (int cell = 0; ; cell++) {
+            if (((board >>> (cell << 2)) & 0xF) == 0) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * Counts the linear conflict from the arrays, two moves for each tile outside the longest run in goal order
+     */
+    private static int linearConflict(int[][] board, int[][] goal) {
+        int[] goalRow = new int[SIZE * SIZE];
+        int[] goalCol = new int[SIZE * SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                goalRow[goal[i][j]] = i;
+                goalCol[goal[i][j]] = j;
+            }
+        }
+        int h = 0;
+        for (int line = 0; line < SIZE; line++) {
+            int[] rowOrder = new int[SIZE];
+            int[] colOrder = new int[SIZE];
+            int rows = 0;
+            int cols = 0;
+            for (int k = 0; k < SIZE; k++) {
+                int rowTile = board[line][k];
+                if (rowTile != 0 && goalRow[rowTile] == line) {
+                    rowOrder[rows++] = goalCol[rowTile];
+                }
+                int colTile = board[k][line];
+                if (colTile != 0 && goalCol[colTile] == line) {
+                    colOrder[cols++] = goalRow[colTile];
+                }
+            }
+            h += 2 * (rows - longestIncreasing(rowOrder, rows)) + 2 * (cols - longestIncreasing(colOrder, cols));
+        }
+        return h;
+    }
+
+    private static int longestIncreasing(int[] values, int count) {
+        int longest = 0;
+        for (int mask = 1; mask < 1 << count; mask++) {
+            int last = -1;
+            boolean increasing = true;
+            for (int i = 0; i < count && increasing; i++) {
+                if ((mask & 1 << i) != 0) {
+                    increasing = values[i] > last;
+                    last = values[i];
+                }
+            }
+            if (increasing) {
+                longest = Math.max(longest, Integer.bitCount(mask));
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Checks the searches of GridSolver
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ *
+ * @author Joseph
+ */
+class GridSolverTest {
+
+    @Test
+    void jumpPointSearchNeedsDiagonalMoves() {
+        GridSolver solver = new GridSolver(new GridMap("...", "..."), false);
+        assertThrows(IllegalStateException.class, () -> solver.jumpPointSearch(new GridState(0, 0), new GridState(2, 1)));
+    }
+
+    @Test
+    void jumpPointSearchMatchesAStar() {
+        for (int trial = 0; trial < 20; trial++) {
+            Random random = new Random(trial);
+            GridMap map = RandomInstances.grid(40, 30, 10 + trial * 2, random);
+            GridSolver solver = new GridSolver(map, true);
+            GridState goal = new GridState(39, 29);
+            int cost = RandomInstances.cost(solver.AStar(new GridState(0, 0), goal));
+            ArrayList<GridState> path = solver.jumpPointSearch(new GridState(0, 0), goal);
+            assertEquals(cost, RandomInstances.cost(path), "trial " + trial);
+            if (path != null) {
+                assertWalkable(map, path);
+            }
+        }
+    }
+
+    @Test
+    void parallelAStarMatchesAStar() {
+        for (int trial = 0; trial < 10; trial++) {
+            Random random = new Random(trial);
+            GridMap map = RandomInstances.grid(40, 30, 25, random);
+            GridSolver solver = new GridSolver(map, trial % 2 == 0);
+            GridState goal = new GridState(39, 29);
+            int cost = RandomInstances.cost(solver.AStar(new GridState(0, 0), goal));
+            assertEquals(cost, RandomInstances.cost(solver.parallelAStar(new GridState(0, 0), goal, 4)), "trial " + trial);
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void parallelAStarEndsWithoutAPath() {
+        GridMap map = new GridMap(
+                "..@..",
+                "..@..",
+                "..@..");
+        GridSolver solver = new GridSolver(map, true);
+        assertNull(solver.parallelAStar(new GridState(0, 0), new GridState(4, 0), 4));
+        assertNull(solver.jumpPointSearch(new GridState(0, 0), new GridState(4, 0)));
+    }
+
+    /**
+     * Checks every step of a path moves to a neighbouring open cell without cutting a blocked corner
+     */
+    private static void assertWalkable(GridMap map, ArrayList<GridState> path) {
+        for (int i = 1; i < path.size(); i++) {
+            GridState from = path.get(i - 1);
+            GridState to = path.get(i);
+            int dx = to.getX() - from.getX();
+            int dy = to.getY() - from.getY();
+            assertTrue(Math.abs(dx) <= 1 && Math.abs(dy) <= 1 && (dx != 0 || dy != 0), "step " + i);
+            assertTrue(map.isPassable(to.getX(), to.getY()), "step " + i);
+            if (dx != 0 && dy != 0) {
+                assertTrue(map.isPassable(from.getX() + dx, from.getY()) && map.isPassable(from.getX(), from.getY() + dy),
+                        "step " + i);
+            }
+        }
+    }
+}
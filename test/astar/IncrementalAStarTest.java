@@ -0,0 +1,89 @@
+/*
+ * Checks that replanning with IncrementalAStar finds the same cost as searching the changed map again
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class IncrementalAStarTest {
+
+    @Test
+    void openingAWallShortensThePath() {
+        GridMap map = new GridMap(
+                "..@..",
+                "..@..",
+                "..@..",
+                "..@..",
+                ".....");
+        GridSolver solver = new GridSolver(map, false);
+        IncrementalAStar<GridState> planner = solver.incrementalAStar(new GridState(0, 0), new GridState(4, 0));
+        assertEquals(12 * GridSolver.STRAIGHT_COST, RandomInstances.cost(planner.plan()));
+        map.setPassable(2, 0, true);
+        planner.stateChanged(new GridState(2, 0));
+        ArrayList<GridState> path = planner.plan();
+        assertEquals(4 * GridSolver.STRAIGHT_COST, RandomInstances.cost(path));
+        assertEquals(5, path.size());
+    }
+
+    @Test
+    void blockingTheOnlyWayLeavesNoPath() {
+        GridMap map = new GridMap(
+                "..@..",
+                "..@..",
+                ".....");
+        GridSolver solver = new GridSolver(map, true);
+        IncrementalAStar<GridState> planner = solver.incrementalAStar(new GridState(0, 0), new GridState(4, 0));
+        assertNotNull(planner.plan());
+        map.setPassable(2, 2, false);
+        planner.stateChanged(new GridState(2, 2));
+        assertEquals(-1, RandomInstances.cost(planner.plan()));
+        map.setPassable(2, 2, true);
+        planner.stateChanged(new GridState(2, 2));
+        assertEquals(RandomInstances.cost(solver.AStar(new GridState(0, 0), new GridState(4, 0))),
+                RandomInstances.cost(planner.plan()));
+    }
+
+    @Test
+    void replansMatchAStarAfterOpeningAndBlockingCells() {
+        for (int trial = 0; trial < 8; trial++) {
+            Random random = new Random(trial);
+            boolean diagonal = trial % 2 == 0;
+            GridMap map = RandomInstances.grid(30, 30, 30, random);
+            GridSolver solver = new GridSolver(map, diagonal);
+            GridState goal = new GridState(29, 29);
+            IncrementalAStar<GridState> planner = solver.incrementalAStar(new GridState(0, 0), goal);
+            ArrayList<GridState> path = planner.plan();
+            for (int change = 0; change < 80; change++) {
+                int x = random.nextInt(30);
+                int y = random.nextInt(30);
+                GridState start = planner.getStart();
+                if ((x == 29 && y == 29) || (x == start.getX() && y == start.getY())) {
+                    continue;
+                }
+                map.setPassable(x, y, !map.isPassable(x, y));
+                planner.stateChanged(new GridState(x, y));
+                if (path != null && path.size() > 2 && change % 4 == 0
+                        && map.isPassable(path.get(1).getX(), path.get(1).getY())) {
+                    GridState next = path.get(1);
+                    planner.moveStart(new GridState(next.getX(), next.getY()));
+                }
+                path = planner.plan();
+                start = planner.getStart();
+                ArrayList<GridState> expected = new GridSolver(map, diagonal)
+                        .AStar(new GridState(start.getX(), start.getY()), new GridState(29, 29));
+                assertEquals(RandomInstances.cost(expected), RandomInstances.cost(path),
+                        "trial " + trial + " change " + change);
+            }
+        }
+    }
+}
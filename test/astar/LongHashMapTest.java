@@ -0,0 +1,68 @@
+/*
+ * Checks LongHashMap against a HashMap through random puts and removes
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class LongHashMapTest {
+
+    @Test
+    void matchesAHashMapThroughPutsAndRemoves() {
+        Random random = new Random(8);
+        //few keys in a small table keep the probe runs long, so removes shift keys back across them
+        LongHashMap<Long> map = new LongHashMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            long key = random.nextInt(step < 100_000 ? 64 : 2048) * 0x9E3779B97F4A7C15L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "step " + step);
+            } else {
+                long value = random.nextLong();
+                assertEquals(expected.put(key, value), map.put(key, value), "step " + step);
+            }
+            assertEquals(expected.size(), map.size());
+            if (step % 1000 == 0) {
+                for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                    assertEquals(entry.getValue(), map.get(entry.getKey()), "step " + step);
+                }
+            }
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void removingEveryKeyLeavesItEmpty() {
+        LongHashMap<String> map = new LongHashMap<>(16);
+        for (long key = -500; key < 500; key++) {
+            map.put(key, Long.toString(key));
+        }
+        for (long key = -500; key < 500; key += 2) {
+            assertEquals(Long.toString(key), map.remove(key));
+        }
+        for (long key = -500; key < 500; key++) {
+            assertEquals(key % 2 == 0 ? null : Long.toString(key), map.get(key));
+        }
+        for (long key = -499; key < 500; key += 2) {
+            map.remove(key);
+        }
+        assertTrue(map.isEmpty());
+        assertNull(map.remove(0));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+}
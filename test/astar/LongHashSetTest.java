@@ -0,0 +1,52 @@
+/*
+ * Checks LongHashSet against a HashSet through random adds and lookups
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class LongHashSetTest {
+
+    @Test
+    void matchesAHashSetAcrossResizes() {
+        Random random = new Random(1);
+        //a small table resizes many times on the way
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> expected = new HashSet<>();
+        for (int step = 0; step < 100_000; step++) {
+            long key = random.nextInt(4) == 0 ? random.nextInt(64) - 32 : random.nextLong();
+            assertEquals(expected.add(key), set.add(key), "step " + step);
+            assertEquals(expected.size(), set.size());
+            long probe = random.nextInt(64) - 32;
+            assertEquals(expected.contains(probe), set.contains(probe), "step " + step);
+        }
+        for (long key : expected) {
+            assertTrue(set.contains(key));
+        }
+    }
+
+    @Test
+    void zeroIsAKeyLikeAnyOther() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Checks that both open lists poll the lowest f first, breaking ties by the highest g
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class OpenListTest {
+
+    @Test
+    void heapPollsInOrder() {
+        pollsInOrder(new HeapOpenList<>());
+    }
+
+    @Test
+    void bucketsPollInOrder() {
+        pollsInOrder(new BucketOpenList<>());
+    }
+
+    @Test
+    void bucketsRejectNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new BucketOpenList<int[]>().add(new int[0], -1, 0));
+    }
+
+    /**
+     * Interleaves adds and polls, with f rising like in a search, and compares each poll with a PriorityQueue
+     */
+    private static void pollsInOrder(OpenList<int[]> list) {
+        Random random = new Random(3);
+        PriorityQueue<int[]> expected = new PriorityQueue<>((a, b) -> a[0] != b[0] ? a[0] - b[0] : b[1] - a[1]);
+        int low = 0;
+        for (int step = 0; step < 50_000; step++) {
+            if (random.nextInt(5) < 3) {
+                int[] entry = {low + random.nextInt(40), random.nextInt(30)};
+                list.add(entry, entry[0], entry[1]);
+                expected.add(entry);
+            } else if (!expected.isEmpty()) {
+                int[] polled = list.poll();
+                int[] want = expected.poll();
+                assertEquals(want[0], polled[0], "step " + step);
+                assertEquals(want[1], polled[1], "step " + step);
+                low = polled[0];
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll()[0], list.poll()[0]);
+        }
+        assertNull(list.poll());
+    }
+}
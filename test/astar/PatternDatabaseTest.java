@@ -0,0 +1,127 @@
+/*
+ * Checks pattern databases on boards of other shapes against the exact distances found by a breadth first search
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Joseph
+ */
+class PatternDatabaseTest {
+
+    private static final int[][] GOAL_2X3 = {{1, 2, 3}, {4, 5, 0}};
+    private static final int[][] GOAL_4X4 = {{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11, 12}, {13, 14, 15, 0}};
+
+    @Test
+    void oneGroupOfEveryTileIsExact() {
+        SlidingState goal = SlidingState.of(GOAL_2X3);
+        AdditivePatternDatabase patterns = AdditivePatternDatabase.build(goal, new int[]{1, 2, 3, 4, 5});
+        for (Map.Entry<SlidingState, Integer> entry : distances(goal).entrySet()) {
+            assertEquals((int) entry.getValue(), patterns.estimate(entry.getKey()));
+        }
+    }
+
+    @Test
+    void disjointGroupsLieBetweenManhattanAndTheDistance() {
+        SlidingState goal = SlidingState.of(GOAL_2X3);
+        AdditivePatternDatabase patterns = AdditivePatternDatabase.build(goal, new int[]{1, 2, 3}, new int[]{4, 5});
+        for (Map.Entry<SlidingState, Integer> entry : distances(goal).entrySet()) {
+            int h = patterns.estimate(entry.getKey());
+            assertTrue(h <= entry.getValue());
+            assertTrue(h >= manhattan(entry.getKey(), goal));
+        }
+    }
+
+    @Test
+    void slidingSolverFindsTheDistanceWithAndWithoutPatterns() {
+        SlidingState goal = SlidingState.of(GOAL_2X3);
+        SlidingSolver plain = new SlidingSolver();
+        SlidingSolver patterned = new SlidingSolver(AdditivePatternDatabase.build(goal, new int[]{1, 2, 3}, new int[]{4, 5}));
+        for (Map.Entry<SlidingState, Integer> entry : distances(goal).entrySet()) {
+            assertEquals(entry.getValue() + 1, plain.AStar(entry.getKey().copy(), goal).size());
+            assertEquals(entry.getValue() + 1, patterned.IDAStar(entry.getKey().copy(), goal).size());
+        }
+    }
+
+    @Test
+    void savedDatabasesLoadWithTheirShape(@TempDir Path directory) throws IOException {
+        SlidingState goal = SlidingState.of(GOAL_4X4);
+        AdditivePatternDatabase patterns = AdditivePatternDatabase.build(goal, new int[]{13, 14, 15}, new int[]{4, 8});
+        Path file = directory.resolve("patterns.pdb");
+        patterns.save(file);
+        AdditivePatternDatabase loaded = AdditivePatternDatabase.load(file);
+        assertEquals(4, loaded.getRows());
+        assertEquals(4, loaded.getCols());
+        assertTrue(loaded.isBuiltFor(goal));
+        assertFalse(loaded.isBuiltFor(new PuzzleState(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 0}})));
+        SlidingState state = SlidingState.of(new int[][]{{15, 2, 3, 13}, {5, 6, 7, 4}, {9, 10, 11, 12}, {14, 1, 8, 0}});
+        assertEquals(patterns.estimate(state), loaded.estimate(state));
+    }
+
+    @Test
+    void corruptCountsFailToLoad(@TempDir Path directory) throws IOException {
+        AdditivePatternDatabase patterns = AdditivePatternDatabase.build(SlidingState.of(GOAL_2X3), new int[]{1, 2, 3});
+        Path file = directory.resolve("patterns.pdb");
+        patterns.save(file);
+        byte[] saved = Files.readAllBytes(file);
+        //the group count follows the 24 bytes of magic, version, shape and goal, the first tile count follows it
+        for (int offset : new int[]{24, 28}) {
+            for (int count : new int[]{-1, Integer.MAX_VALUE}) {
+                byte[] corrupt = saved.clone();
+                ByteBuffer.wrap(corrupt).putInt(offset, count);
+                Files.write(file, corrupt);
+                assertThrows(IOException.class, () -> AdditivePatternDatabase.load(file), "count " + count + " at " + offset);
+            }
+        }
+    }
+
+    private static int manhattan(SlidingState state, SlidingState goal) {
+        int h = 0;
+        for (int cell = 0; cell < state.cells(); cell++) {
+            for (int goalCell = 0; goalCell < goal.cells(); goalCell++) {
+                if (state.tileAt(cell) != 0 && state.tileAt(cell) == goal.tileAt(goalCell)) {
+                    h += Math.abs(cell / state.getCols() - goalCell / goal.getCols())
+                            + Math.abs(cell % state.getCols() - goalCell % goal.getCols());
+                }
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Finds the distance of every state reachable from the goal
+     */
+    private static Map<SlidingState, Integer> distances(SlidingState goal) {
+        Map<SlidingState, Integer> distances = new HashMap<>();
+        ArrayDeque<SlidingState> queue = new ArrayDeque<>();
+        distances.put(goal, 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            SlidingState state = queue.poll();
+            for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+                SlidingState next = state.copy();
+                if (next.move(move) && !distances.containsKey(next)) {
+                    distances.put(next, distances.get(state) + 1);
+                    queue.add(next);
+                }
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Checks the static entry points of PuzzleSolver
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ *
+ * @author Joseph
+ */
+class PuzzleSolverTest {
+
+    private static final int[][] GOAL = {{1, 2, 3}, {4, 5, 6}, {7, 8, 0}};
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void idaStarReturnsNullOnAnUnsolvablePair() {
+        assertNull(PuzzleSolver.IDAStar(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}, GOAL));
+    }
+
+    @Test
+    void idaStarSolvesASolvablePair() {
+        assertEquals(31, PuzzleSolver.IDAStar(new int[][]{{8, 6, 7}, {2, 5, 4}, {3, 0, 1}}, GOAL).size() - 1);
+    }
+}
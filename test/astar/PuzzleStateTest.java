@@ -0,0 +1,68 @@
+/*
+ * Checks the packed board of PuzzleState against the arrays it was made from
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class PuzzleStateTest {
+
+    private static final int[][] PUZZLE = {{8, 6, 7}, {2, 5, 4}, {3, 0, 1}};
+
+    @Test
+    void packsEveryTile() {
+        PuzzleState state = new PuzzleState(PUZZLE);
+        assertArrayEquals(PUZZLE, state.getPuzzle());
+        for (int i = 0; i < PuzzleState.BOARD_SIZE; i++) {
+            for (int j = 0; j < PuzzleState.BOARD_SIZE; j++) {
+                assertEquals(PUZZLE[i][j], state.tileAt(i, j));
+            }
+        }
+        assertEquals(2, state.getRow());
+        assertEquals(1, state.getCol());
+        assertTrue(state.isEqualTo(PUZZLE));
+    }
+
+    @Test
+    void movesSlideOneTileIntoTheZero() {
+        PuzzleState state = new PuzzleState(PUZZLE);
+        PuzzleState up = state.moveUp();
+        assertArrayEquals(new int[][]{{8, 6, 7}, {2, 0, 4}, {3, 5, 1}}, up.getPuzzle());
+        assertEquals(1, up.getRow());
+        assertArrayEquals(new int[][]{{8, 6, 7}, {2, 5, 4}, {0, 3, 1}}, state.moveLeft().getPuzzle());
+        assertArrayEquals(new int[][]{{8, 6, 7}, {2, 5, 4}, {3, 1, 0}}, state.moveRight().getPuzzle());
+        assertNull(state.moveDown());
+        //the state moved from is left as it was
+        assertArrayEquals(PUZZLE, state.getPuzzle());
+    }
+
+    @Test
+    void keysMatchTheBoard() {
+        PuzzleState state = new PuzzleState(PUZZLE);
+        assertEquals(state.key(), new PuzzleState(PuzzleState.cloneArray(PUZZLE)).key());
+        assertEquals(state, state.moveUp().moveDown());
+        assertNotEquals(state.key(), state.moveUp().key());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void goalArrayHeuristicIsTheManhattanDistance() {
+        PuzzleState state = new PuzzleState(PUZZLE);
+        int[][] goal = {{1, 2, 3}, {4, 5, 6}, {7, 8, 0}};
+        state.calculateHeursitic(4, goal);
+        assertEquals(5, state.g);
+        //8 is 3 moves from its goal cell, 6 is 2, 7 is 4, 2 is 2, 5 is 0, 4 is 2, 3 is 4 and 1 is 4
+        assertEquals(5 + 21, state.f);
+    }
+}
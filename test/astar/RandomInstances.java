@@ -0,0 +1,93 @@
+/*
+ * Seeded random problems shared by the tests
+ * 10/17/26
+ */
+package astar;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ *
+ * @author Joseph
+ */
+final class RandomInstances {
+
+    private static final int WALK = 200;
+
+    private RandomInstances() {
+    }
+
+    /**
+     * Builds a map with a share of its cells blocked, the corners are left open
+     * @param width, the number of columns
+     * @param height, the number of rows
+     * @param blocked, the percentage of cells to block
+     * @param random, the source of the cells
+     * @return the map
+     */
+    static GridMap grid(int width, int height, int blocked, Random random) {
+        String[] rows = new String[height];
+        for (int y = 0; y < height; y++) {
+            StringBuilder row = new StringBuilder(width);
+            for (int x = 0; x < width; x++) {
+                boolean corner = (x == 0 || x == width - 1) && (y == 0 || y == height - 1);
+                row.append(!corner && random.nextInt(100) < blocked ? '@' : '.');
+            }
+            rows[y] = row.toString();
+        }
+        return new GridMap(rows);
+    }
+
+    /**
+     * Draws a solvable pair of boards, the goal is a random ordering of the tiles and
+     * the initial board is found by sliding the zero around it at random
+     * @param rows, the number of rows
+     * @param cols, the number of columns
+     * @param random, the source of the boards
+     * @return the initial and the goal board
+     */
+    static int[][][] pair(int rows, int cols, Random random) {
+        int[] tiles = new int[rows * cols];
+        for (int i = 0; i < tiles.length; i++) {
+            int j = random.nextInt(i + 1);
+            tiles[i] = tiles[j];
+            tiles[j] = i;
+        }
+        int[][] goal = new int[rows][cols];
+        int zero = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            goal[i / cols][i % cols] = tiles[i];
+            if (tiles[i] == 0) {
+                zero = i;
+            }
+        }
+        int[] walk = tiles.clone();
+        for (int step = 0; step < WALK; step++) {
+            int next;
+            switch (random.nextInt(4)) {
+                case 0: next = zero >= cols ? zero - cols : -1; break;
+                case 1: next = zero + cols < walk.length ? zero + cols : -1; break;
+                case 2: next = zero % cols > 0 ? zero - 1 : -1; break;
+                default: next = zero % cols < cols - 1 ? zero + 1 : -1; break;
+            }
+            if (next >= 0) {
+                walk[zero] = walk[next];
+                walk[next] = 0;
+                zero = next;
+            }
+        }
+        int[][] initial = new int[rows][cols];
+        for (int i = 0; i < walk.length; i++) {
+            initial[i / cols][i % cols] = walk[i];
+        }
+        return new int[][][]{initial, goal};
+    }
+
+    /**
+     * @return the cost of a path, or -1 for no path
+     */
+    static int cost(List<? extends AStarSolver.AIState> path) {
+        return path == null ? -1 : path.get(path.size() - 1).g;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Checks that every search mode finds a path as short as AStar's on random pairs of boards
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Joseph
+ */
+class SearchModesTest {
+
+    private static final int PAIRS = 12;
+
+    @Test
+    void everyModeMatchesAStar() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < PAIRS; trial++) {
+            int[][][] pair = RandomInstances.pair(3, 3, random);
+            PuzzleState initial = new PuzzleState(pair[0]);
+            PuzzleState goal = new PuzzleState(pair[1]);
+            int cost = RandomInstances.cost(new PuzzleSolver().AStar(initial.copy(), goal));
+            List<BiFunction<PuzzleState, PuzzleState, ArrayList<PuzzleState>>> modes = List.of(
+                    (a, b) -> new PuzzleSolver().IDAStar(a, b),
+                    (a, b) -> new PuzzleSolver().bidirectionalAStar(a, b),
+                    (a, b) -> new PuzzleSolver().compactAStar(a, b),
+                    (a, b) -> new PuzzleSolver().partialExpansionAStar(a, b),
+                    (a, b) -> new PuzzleSolver().indexedAStar(a, b),
+                    (a, b) -> new PuzzleSolver().indexedAStar(a, b, false),
+                    (a, b) -> new PuzzleSolver().frontierAStar(a, b),
+                    (a, b) -> new PuzzleSolver().batchAStar(a, b, 16),
+                    (a, b) -> new PuzzleSolver().parallelAStar(a, b, 4));
+            for (int mode = 0; mode < modes.size(); mode++) {
+                ArrayList<PuzzleState> path = modes.get(mode).apply(initial.copy(), goal.copy());
+                assertEquals(cost, RandomInstances.cost(path), "trial " + trial + " mode " + mode);
+                assertConnected(path, initial, goal);
+            }
+            assertEquals(cost, SlidingSolver.solve(pair[0], pair[1]).size() - 1, "trial " + trial);
+            assertEquals(cost, new SlidingSolver().IDAStar(SlidingState.of(pair[0]), SlidingState.of(pair[1])).size() - 1);
+        }
+    }
+
+    @Test
+    void externalAStarMatchesAStar(@TempDir Path directory) throws IOException {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 3; trial++) {
+            int[][][] pair = RandomInstances.pair(3, 3, random);
+            PuzzleState initial = new PuzzleState(pair[0]);
+            PuzzleState goal = new PuzzleState(pair[1]);
+            int cost = RandomInstances.cost(new PuzzleSolver().AStar(initial.copy(), goal));
+            //a small sort buffer forces the nodes out to the files
+            ArrayList<PuzzleState> path = new PuzzleSolver().externalAStar(initial.copy(), goal, directory, 1 << 16);
+            assertEquals(cost, RandomInstances.cost(path), "trial " + trial);
+            assertConnected(path, initial, goal);
+        }
+    }
+
+    @Test
+    void anytimePathsKeepTheirBound() {
+        Random random = new Random(4);
+        for (int trial = 0; trial < PAIRS; trial++) {
+            int[][][] pair = RandomInstances.pair(3, 3, random);
+            int cost = RandomInstances.cost(PuzzleSolver.AStar(pair[0], pair[1]));
+            PuzzleSolver solver = new PuzzleSolver();
+            AnytimeResult<PuzzleState> first = solver.anytimeAStar(new PuzzleState(pair[0]), new PuzzleState(pair[1]),
+                    5, 1, TimeUnit.MILLISECONDS);
+            if (first.getPath() != null) {
+                assertTrue(first.getCost() <= first.getBound() * cost + 1e-9, "trial " + trial + " " + first);
+                assertTrue(first.getCost() >= cost);
+            }
+            AnytimeResult<PuzzleState> last = PuzzleSolver.anytimeAStar(pair[0], pair[1], 30, TimeUnit.SECONDS);
+            assertTrue(last.isOptimal(), "trial " + trial + " " + last);
+            assertEquals(cost, last.getCost());
+        }
+    }
+
+    @Test
+    void slidingSolverMatchesAStarOnOtherShapes() {
+        Random random = new Random(5);
+        int[][] shapes = {{2, 2}, {2, 3}, {3, 2}, {2, 4}, {3, 3}};
+        for (int[] shape : shapes) {
+            for (int trial = 0; trial < 4; trial++) {
+                int[][][] pair = RandomInstances.pair(shape[0], shape[1], random);
+                SlidingState initial = SlidingState.of(pair[0]);
+                SlidingState goal = SlidingState.of(pair[1]);
+                int cost = RandomInstances.cost(new SlidingSolver().AStar(initial.copy(), goal));
+                assertEquals(cost, RandomInstances.cost(new SlidingSolver().IDAStar(initial.copy(), goal)));
+                assertEquals(cost, RandomInstances.cost(new SlidingSolver().frontierAStar(initial.copy(), goal)));
+                assertEquals(cost, RandomInstances.cost(new SlidingSolver().compactAStar(initial.copy(), goal)));
+            }
+        }
+    }
+
+    @Test
+    void wideBoardsAreOnlySearchedWithIDAStar() {
+        int[][] tiles = new int[5][5];
+        for (int cell = 0; cell < 25; cell++) {
+            tiles[cell / 5][cell % 5] = (cell + 1) % 25;
+        }
+        SlidingState goal = SlidingState.of(tiles);
+        SlidingState initial = goal.copy();
+        assertTrue(initial.move(PuzzleState.LEFT) && initial.move(PuzzleState.UP) && initial.move(PuzzleState.LEFT));
+        assertEquals(3, RandomInstances.cost(new SlidingSolver().IDAStar(initial.copy(), goal)));
+        List<BiFunction<SlidingState, SlidingState, ArrayList<SlidingState>>> keyed = List.of(
+                (a, b) -> new SlidingSolver().AStar(a, b),
+                (a, b) -> new SlidingSolver().bidirectionalAStar(a, b),
+                (a, b) -> new SlidingSolver().indexedAStar(a, b),
+                (a, b) -> new SlidingSolver().batchAStar(a, b, 16),
+                (a, b) -> new SlidingSolver().compactAStar(a, b),
+                (a, b) -> new SlidingSolver().frontierAStar(a, b));
+        for (BiFunction<SlidingState, SlidingState, ArrayList<SlidingState>> mode : keyed) {
+            assertThrows(UnsupportedOperationException.class, () -> mode.apply(initial.copy(), goal));
+        }
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void parallelAStarEndsOnAnUnsolvablePair() {
+        PuzzleState initial = new PuzzleState(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}});
+        PuzzleState goal = new PuzzleState(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 0}});
+        assertNull(new PuzzleSolver().parallelAStar(initial, goal, 4));
+    }
+
+    /**
+     * Checks a path runs from the initial board to the goal one move at a time
+     */
+    static void assertConnected(List<PuzzleState> path, PuzzleState initial, PuzzleState goal) {
+        assertNotNull(path);
+        assertTrue(path.get(0).isEqualTo(initial));
+        assertTrue(path.get(path.size() - 1).isEqualTo(goal));
+        for (int i = 1; i < path.size(); i++) {
+            boolean step = false;
+            for (int move = 0; move < PuzzleState.ACTIONS.length && !step; move++) {
+                PuzzleState next = path.get(i - 1).copy();
+                step = next.move(move) && next.isEqualTo(path.get(i));
+            }
+            assertTrue(step, "step " + i);
+        }
+    }
+}
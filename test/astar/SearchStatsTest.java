@@ -0,0 +1,131 @@
+/*
+ * Checks that every search mode reports its statistics to the solver's listener
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class SearchStatsTest {
+
+    /*
+     *    A state of a graph of four vertices, S = 0, A = 1, C = 2 and G = 3
+     */
+    private static class Vertex extends AStarSolver.AIState {
+
+        private final int id;
+
+        private Vertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public long key() {
+            return id;
+        }
+    }
+
+    /*
+     *    The cheap path to C runs through A, whose estimate is high but admissible, so C is first
+     *    expanded from S and has to be reopened when A reaches it more cheaply
+     */
+    private static class Graph extends AStarSolver<Vertex> {
+
+        /* Each edge is from, to and cost */
+        private static final int[][] EDGES = {{0, 1, 1}, {0, 2, 3}, {1, 2, 1}, {2, 3, 5}};
+        private static final int[] H = {0, 4, 0, 0};
+
+        @Override
+        public boolean isEqualTo(Vertex current, Vertex goal) {
+            return current.id == goal.id;
+        }
+
+        @Override
+        public ArrayList<Vertex> calculateStates(int pathCost, Vertex current, LongHashSet closedNodes, Vertex goalNode) {
+            ArrayList<Vertex> list = new ArrayList<>();
+            for (int[] edge : EDGES) {
+                if (edge[0] == current.id && !closedNodes.contains(edge[1])) {
+                    Vertex next = new Vertex(edge[1]);
+                    next.g = pathCost + edge[2];
+                    next.f = next.g + H[next.id];
+                    list.add(next);
+                }
+            }
+            return list;
+        }
+
+        @Override
+        protected int estimate(Vertex state, Vertex goal) {
+            return H[state.id];
+        }
+    }
+
+    @Test
+    void everyModeReportsItsSearch() {
+        int[][][] pair = RandomInstances.pair(3, 3, new Random(11));
+        PuzzleState goal = new PuzzleState(pair[1]);
+        int cost = RandomInstances.cost(new PuzzleSolver().AStar(new PuzzleState(pair[0]), goal));
+        List<BiFunction<PuzzleSolver, PuzzleState, ArrayList<PuzzleState>>> modes = List.of(
+                (solver, initial) -> solver.AStar(initial, goal),
+                (solver, initial) -> solver.IDAStar(initial, goal),
+                (solver, initial) -> solver.bidirectionalAStar(initial, goal),
+                (solver, initial) -> solver.parallelAStar(initial, goal, 2),
+                (solver, initial) -> solver.batchAStar(initial, goal, 16),
+                (solver, initial) -> solver.frontierAStar(initial, goal));
+        for (BiFunction<PuzzleSolver, PuzzleState, ArrayList<PuzzleState>> mode : modes) {
+            List<SearchStats> reports = new ArrayList<>();
+            SearchCounters counters = new SearchCounters();
+            PuzzleSolver solver = new PuzzleSolver();
+            solver.setSearchListener(SearchListener.of(reports::add, counters));
+            mode.apply(solver, new PuzzleState(pair[0]));
+            assertEquals(1, reports.size());
+            SearchStats stats = reports.get(0);
+            assertTrue(stats.isSolved(), stats.toString());
+            assertEquals(cost, stats.getSolutionCost(), stats.toString());
+            assertTrue(stats.getExpanded() > 0 && stats.getGenerated() > 0, stats.toString());
+            assertTrue(stats.getWallNanos() > 0, stats.toString());
+            //the heuristic is timed inside the expansion
+            assertTrue(stats.getHeuristicNanos() > 0, stats.toString());
+            assertTrue(stats.getHeuristicNanos() <= stats.getExpansionNanos(), stats.toString());
+            assertEquals(stats.getExpanded(), counters.getExpanded());
+            assertEquals(1, counters.getSolved());
+        }
+    }
+
+    @Test
+    void reopenedStatesAreReported() {
+        List<SearchStats> reports = new ArrayList<>();
+        SearchCounters counters = new SearchCounters();
+        Graph graph = new Graph();
+        graph.setSearchListener(SearchListener.of(reports::add, counters));
+        assertEquals(7, graph.indexedAStar(new Vertex(0), new Vertex(3), true).get(3).g);
+        assertEquals(1, reports.get(0).getReopened());
+        assertEquals(1, counters.getReopened());
+        assertTrue(counters.toPrometheus().contains("astar_nodes_reopened_total 1\n"));
+    }
+
+    @Test
+    void unsolvedSearchesReportNoCost() {
+        List<SearchStats> reports = new ArrayList<>();
+        PuzzleSolver solver = new PuzzleSolver();
+        solver.setSearchListener(reports::add);
+        solver.AStar(new PuzzleState(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}),
+                new PuzzleState(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 0}}));
+        assertFalse(reports.get(0).isSolved());
+        assertEquals(-1, reports.get(0).getSolutionCost());
+        //half of the 9! boards are reachable, and every one of them is expanded
+        assertEquals(181440, reports.get(0).getExpanded());
+    }
+}
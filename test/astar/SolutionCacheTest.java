@@ -0,0 +1,102 @@
+/*
+ * Checks that SolutionCache answers every rotation, reflection and relabelling of a solved pair
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class SolutionCacheTest {
+
+    private static final int SIZE = PuzzleState.BOARD_SIZE;
+
+    @Test
+    void symmetricPairsAreHits() {
+        Random random = new Random(11);
+        SolutionCache cache = new SolutionCache(64);
+        for (int trial = 0; trial < 6; trial++) {
+            int[][][] pair = RandomInstances.pair(SIZE, SIZE, random);
+            int cost = RandomInstances.cost(PuzzleSolver.AStar(pair[0], pair[1]));
+            long misses = cache.getMisses();
+            for (int symmetry = 0; symmetry < 8; symmetry++) {
+                int[] labels = relabelling(random);
+                int[][] initial = relabel(turn(pair[0], symmetry), labels);
+                int[][] goal = relabel(turn(pair[1], symmetry), labels);
+                ArrayList<PuzzleState> path = cache.solve(initial, goal);
+                assertEquals(cost, path.size() - 1, "trial " + trial + " symmetry " + symmetry);
+                SearchModesTest.assertConnected(path, new PuzzleState(initial), new PuzzleState(goal));
+            }
+            assertEquals(misses + 1, cache.getMisses(), "trial " + trial);
+        }
+        assertEquals(6 * 7, cache.getHits());
+    }
+
+    @Test
+    void unsolvablePairsAreCachedToo() {
+        SolutionCache cache = new SolutionCache(4);
+        int[][] goal = {{1, 2, 3}, {4, 5, 6}, {7, 8, 0}};
+        assertNull(cache.solve(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}, goal));
+        //the same pair with the tiles 1 and 2 relabelled
+        assertNull(cache.solve(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 0}}, new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    /**
+     * Rotates the board a quarter turn symmetry % 4 times, then mirrors it if symmetry is 4 or more
+     */
+    private static int[][] turn(int[][] board, int symmetry) {
+        int[][] turned = board;
+        for (int t = 0; t < symmetry % 4; t++) {
+            int[][] next = new int[SIZE][SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    next[j][SIZE - 1 - i] = turned[i][j];
+                }
+            }
+            turned = next;
+        }
+        if (symmetry >= 4) {
+            int[][] next = new int[SIZE][SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    next[i][SIZE - 1 - j] = turned[i][j];
+                }
+            }
+            turned = next;
+        }
+        return turned;
+    }
+
+    /**
+     * @return a random new label for each tile, the 0 keeps its label
+     */
+    private static int[] relabelling(Random random) {
+        int[] labels = new int[SIZE * SIZE];
+        for (int i = 1; i < labels.length; i++) {
+            int j = 1 + random.nextInt(i);
+            labels[i] = labels[j];
+            labels[j] = i;
+        }
+        return labels;
+    }
+
+    private static int[][] relabel(int[][] board, int[] labels) {
+        int[][] relabelled = new int[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                relabelled[i][j] = labels[board[i][j]];
+            }
+        }
+        return relabelled;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Checks that a packed Solution gives back the path it was made from
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class SolutionTest {
+
+    @Test
+    void packedPathsReplayTheSameStates() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 8; trial++) {
+            int[][][] pair = RandomInstances.pair(3, 3, random);
+            ArrayList<PuzzleState> path = PuzzleSolver.AStar(pair[0], pair[1]);
+            Solution solution = Solution.of(path);
+            assertEquals(path.size() - 1, solution.length());
+            ArrayList<PuzzleState> states = solution.toList();
+            assertEquals(path.size(), states.size());
+            for (int i = 0; i < path.size(); i++) {
+                assertTrue(path.get(i).isEqualTo(states.get(i)), "trial " + trial + " state " + i);
+                assertTrue(path.get(i).isEqualTo(solution.stateAt(i)), "trial " + trial + " state " + i);
+                assertEquals(path.get(i).getAction(), states.get(i).getAction());
+            }
+            assertEquals(solution.length(), solution.moves().count());
+            Solution compact = PuzzleSolver.solveCompact(pair[0], pair[1]);
+            assertEquals(solution.length(), compact.length(), "trial " + trial);
+            SearchModesTest.assertConnected(compact.toList(), new PuzzleState(pair[0]), new PuzzleState(pair[1]));
+        }
+    }
+
+    @Test
+    void boardsOfOtherShapesReplayFromTheirMoves() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 8; trial++) {
+            int[][][] pair = RandomInstances.pair(2, 4, random);
+            ArrayList<SlidingState> path = SlidingSolver.solve(pair[0], pair[1]);
+            Solution solution = Solution.ofBoards(path);
+            assertEquals(path.size() - 1, solution.length());
+            SlidingState board = solution.getBoard();
+            assertEquals(path.get(0), board);
+            for (int i = 0; i < solution.length(); i++) {
+                assertTrue(board.move(solution.move(i)));
+                assertEquals(path.get(i + 1), board, "trial " + trial + " state " + (i + 1));
+            }
+            assertThrows(IllegalStateException.class, solution::getInitial);
+        }
+    }
+
+    @Test
+    void writerPrintsOneLetterPerMove() throws IOException {
+        int[][][] pair = RandomInstances.pair(3, 3, new Random(8));
+        Solution solution = PuzzleSolver.solveCompact(pair[0], pair[1]);
+        StringWriter text = new StringWriter();
+        try (SolutionWriter writer = new SolutionWriter(text)) {
+            writer.writeMoves(solution);
+        }
+        assertEquals(solution + "\n", text.toString());
+        assertEquals(solution.length(), solution.toString().chars().filter((c) -> "UDLR".indexOf(c) >= 0).count());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Checks Solvability against the boards a breadth first search reaches on small boards
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class SolvabilityTest {
+
+    @Test
+    void agreesWithTheBoardsTheGoalReaches() {
+        int[][] shapes = {{1, 2}, {1, 4}, {3, 1}, {2, 2}, {2, 3}, {3, 2}, {2, 4}, {4, 2}, {3, 3}};
+        Random random = new Random(7);
+        for (int[] shape : shapes) {
+            int rows = shape[0];
+            int cols = shape[1];
+            for (int trial = 0; trial < 2; trial++) {
+                int[][] goal = trial == 0 ? RandomInstances.pair(rows, cols, random)[1] : ordered(rows, cols);
+                Set<SlidingState> reached = reachable(SlidingState.of(goal));
+                int[] tiles = new int[rows * cols];
+                for (int i = 0; i < tiles.length; i++) {
+                    tiles[i] = i;
+                }
+                do {
+                    int[][] board = new int[rows][cols];
+                    for (int i = 0; i < tiles.length; i++) {
+                        board[i / cols][i % cols] = tiles[i];
+                    }
+                    assertEquals(reached.contains(SlidingState.of(board)), Solvability.isSolvable(board, goal),
+                            () -> rows + "x" + cols + " " + Arrays.deepToString(board));
+                } while (nextPermutation(tiles));
+            }
+        }
+    }
+
+    @Test
+    void rejectsBoardsThatDoNotMatch() {
+        int[][] goal = {{1, 2, 3}, {4, 5, 6}, {7, 8, 0}};
+        assertFalse(Solvability.isSolvable(new int[][]{{1, 2}, {3, 0}}, goal));
+        assertFalse(Solvability.isSolvable(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 8}}, goal));
+        assertFalse(Solvability.isSolvable(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}, goal));
+        assertFalse(Solvability.isSolvable(new int[0][], new int[0][]));
+    }
+
+    private static int[][] ordered(int rows, int cols) {
+        int[][] board = new int[rows][cols];
+        for (int i = 0; i < rows * cols; i++) {
+            board[i / cols][i % cols] = (i + 1) % (rows * cols);
+        }
+        return board;
+    }
+
+    private static Set<SlidingState> reachable(SlidingState goal) {
+        Set<SlidingState> reached = new HashSet<>();
+        ArrayDeque<SlidingState> queue = new ArrayDeque<>();
+        reached.add(goal);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            SlidingState state = queue.poll();
+            for (int move = 0; move < PuzzleState.ACTIONS.length; move++) {
+                SlidingState next = state.copy();
+                if (next.move(move) && reached.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Steps to the next ordering in lexicographic order
+     * @return false after the last ordering
+     */
+    private static boolean nextPermutation(int[] values) {
+        int i = values.length - 2;
+        while (i >= 0 && values[i] >= values[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = values.length - 1;
+        while (values[j] <= values[i]) {
+            j--;
+        }
+        int swap = values[i];
+        values[i] = values[j];
+        values[j] = swap;
+        for (int a = i + 1, b = values.length - 1; a < b; a++, b--) {
+            swap = values[a];
+            values[a] = values[b];
+            values[b] = swap;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Checks the answers of SolveService over HTTP and that a request never shares a search that already timed out
+ * 10/17/26
+ */
+package astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Joseph
+ */
+class SolveServiceTest {
+
+    private static final int[][] GOAL = {{1, 2, 3}, {4, 5, 6}, {7, 8, 0}};
+    private static final int[][] INITIAL = {{8, 6, 7}, {2, 5, 4}, {3, 0, 1}};
+
+    @Test
+    void answersOverHttp() throws Exception {
+        try (SolveService service = new SolveService(1, 4, null, null)) {
+            service.start(0, 10_000);
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + service.getPort() + "/solve?goal=1,2,3,4,5,6,7,8,0&initial=";
+            HttpResponse<String> solved = get(client, base + "8,6,7,2,5,4,3,0,1");
+            assertEquals(200, solved.statusCode());
+            assertEquals(31, solved.body().trim().length());
+            assertEquals(422, get(client, base + "2,1,3,4,5,6,7,8,0").statusCode());
+            assertEquals(400, get(client, base + "1,2,3").statusCode());
+            assertEquals(200, get(client, "http://localhost:" + service.getPort() + "/metrics").statusCode());
+        }
+    }
+
+    @Test
+    void servesBoardsOfOtherShapes() throws Exception {
+        try (SolveService service = new SolveService(1, 4, null, null)) {
+            service.start(0, 10_000);
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + service.getPort() + "/solve?";
+            HttpResponse<String> square = get(client, base + "goal=1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,0"
+                    + "&initial=5,1,2,4,9,6,3,8,13,10,7,11,0,14,15,12");
+            assertEquals(200, square.statusCode());
+            assertEquals(SlidingSolver.solve(new int[][]{{5, 1, 2, 4}, {9, 6, 3, 8}, {13, 10, 7, 11}, {0, 14, 15, 12}},
+                    new int[][]{{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11, 12}, {13, 14, 15, 0}}).size() - 1,
+                    square.body().trim().length());
+            HttpResponse<String> wide = get(client, base + "rows=2&goal=1,2,3,4,5,0&initial=0,1,3,4,2,5");
+            assertEquals(200, wide.statusCode());
+            int[][] initial = {{0, 1, 3}, {4, 2, 5}};
+            int[][] goal = {{1, 2, 3}, {4, 5, 0}};
+            assertEquals(SlidingSolver.solve(initial, goal).size() - 1, wide.body().trim().length());
+            assertEquals(400, get(client, base + "goal=1,2,3,4,5,6,7,8,0&initial=1,2,3,0").statusCode());
+        }
+    }
+
+    @Test
+    void aLaterRequestDoesNotShareATimedOutSearch() throws Exception {
+        try (SolveService service = new SolveService(1, 4, null, null)) {
+            for (int i = 0; i < 50; i++) {
+                service.submit(INITIAL, GOAL, 0, TimeUnit.MILLISECONDS);
+                Solution solution = service.submit(INITIAL, GOAL, 10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS);
+                assertNotNull(solution);
+                assertEquals(31, solution.length());
+            }
+        }
+    }
+
+    @Test
+    void unsolvablePairsAreNotSearched() throws Exception {
+        try (SolveService service = new SolveService(1, 1, null, null)) {
+            assertNull(service.submit(new int[][]{{2, 1, 3}, {4, 5, 6}, {7, 8, 0}}, GOAL, 1, TimeUnit.SECONDS).get());
+            assertEquals(0, service.getCounters().getSearches());
+        }
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String uri) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}